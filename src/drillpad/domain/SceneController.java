@@ -28,14 +28,19 @@ import javax.swing.JPanel;
 
 import drillpad.domain.entity.Entity;
 import drillpad.domain.entity.EntityType;
+import drillpad.domain.entity.Interpolation;
+import drillpad.domain.entity.PlaybackMode;
 import drillpad.domain.entity.Player;
 import drillpad.domain.entity.PlayingElement;
 import drillpad.domain.entity.Role;
 import drillpad.domain.entity.Sport;
 import drillpad.domain.entity.Strategy;
+import drillpad.domain.event.AnimationBakeObserver;
 import drillpad.domain.event.AnimationPropertiesChangedObserver;
 import drillpad.domain.event.InstanceChangedObservable;
 import drillpad.domain.event.InstanceChangedObserver;
+import drillpad.general.utility.UndoStateInputStream;
+import drillpad.general.utility.UndoStateOutputStream;
 
 /**
  * Class used as the sole entry point of the domain. All classes who want
@@ -52,6 +57,10 @@ public final class SceneController implements Serializable, InstanceChangedObser
     private static Stack<SceneController> UNDO_STATES = new Stack<>();
     private static Stack<SceneController> REDO_STATES = new Stack<>();
 
+    // NOTE(Eric): The preview is only shown as a thumbnail, rendering it at
+    // the size of a very large playing field would take hundreds of megabytes.
+    private static final int MAX_PREVIEW_IMAGE_SIZE = 1024;
+
     // TODO(Eric): Use a HashMap instead ?
     private final List<Sport> sports;
     private Sport currentSport;
@@ -190,15 +199,17 @@ public final class SceneController implements Serializable, InstanceChangedObser
 
     public void saveState()
     {
+        // NOTE(Eric): The undo streams leave out the tiles of the large
+        // playing field images, the copy shares them with the scene.
         try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
-             ObjectOutputStream out = new ObjectOutputStream(bos))
+             ObjectOutputStream out = new UndoStateOutputStream(bos))
         {
             out.writeObject(this);
 
             ByteArrayInputStream bin =
                     new ByteArrayInputStream(bos.toByteArray());
             ObjectInputStream ois =
-                    new ObjectInputStream(bin);
+                    new UndoStateInputStream(bin);
 
             UNDO_STATES.push((SceneController) ois.readObject());
         }
@@ -483,19 +494,11 @@ public final class SceneController implements Serializable, InstanceChangedObser
             selectedPlayingElement = null;
         }
 
-        // TODO(Eric): Should we allow animating more than one entity at a time ?
+        // NOTE(Eric): Every selected entity is recorded at the same time so a
+        // whole line of players can be moved together.
         if (currentSport.isRecording())
         {
-            Entity selectedEntity = null;
-            if (selectedPlayer != null)
-            {
-                selectedEntity = selectedPlayer;
-            }
-            else if (selectedPlayingElement != null)
-            {
-                selectedEntity = selectedPlayingElement;
-            }
-            currentSport.setAnimationSelectedEntity(selectedEntity);
+            currentSport.setAnimationSelectedEntities(selectedEntities);
         }
 
         return selectedEntities.size();
@@ -504,6 +507,7 @@ public final class SceneController implements Serializable, InstanceChangedObser
     public void updateSelectedItemsPositions(Point delta)
     {
         currentSport.updateSelectedItemsPosition(normalizePosition(delta, zoomFactor));
+        currentSport.captureAnimationInput();
     }
 
     public boolean linkPlayingElementToPlayerLoc(Point mousePositionInPixel)
@@ -566,11 +570,34 @@ public final class SceneController implements Serializable, InstanceChangedObser
         currentSport.skipBackAnimation();
     }
 
+    /**
+     * Computes the poses of the current strategy's animation at every frame
+     * ahead of time, using every core, so it plays without decoding its
+     * tracks. The result is kept until the animation is edited.
+     * <p>
+     * This blocks until the bake is done and must not be called on the event
+     * dispatch thread.
+     *
+     * @param observer The observer notified of the progress, which can also
+     *                 cancel the bake.
+     * @return {@code false} if the bake was cancelled or if the animation was
+     *         edited before it was done.
+     */
+    public boolean bakeAnimation(AnimationBakeObserver observer)
+    {
+        return currentSport.bakeAnimation(observer);
+    }
+
     public void drawPreviousAnimationImages(Graphics2D g2d)
     {
         currentSport.drawPreviousAnimationImages(g2d);
     }
 
+    public void drawCurrentStrategyPlayingFieldTiles(Graphics2D g2d)
+    {
+        currentSport.drawCurrentStrategyPlayingFieldTiles(g2d);
+    }
+
     public void drawPositionsAndArrows(Graphics2D g2d)
     {
         currentSport.drawPositionsAndArrows(g2d);
@@ -595,6 +622,7 @@ public final class SceneController implements Serializable, InstanceChangedObser
         {
             selectedPlayer.rotate(normalizePosition(previousMousePosition, zoomFactor),
                                   normalizePosition(currentMousePosition, zoomFactor));
+            currentSport.captureAnimationInput();
         }
     }
 
@@ -936,6 +964,18 @@ public final class SceneController implements Serializable, InstanceChangedObser
                 currentSport.getCurrentStrategyPlayingFieldImage());
     }
 
+    public BufferedImage getCurrentStrategyPlayingFieldImage(float zoomFactor)
+    {
+        return (currentSport == null ? null :
+                currentSport.getCurrentStrategyPlayingFieldImage(zoomFactor));
+    }
+
+    public boolean isCurrentStrategyPlayingFieldTiled(float zoomFactor)
+    {
+        return (currentSport != null &&
+                currentSport.isCurrentStrategyPlayingFieldTiled(zoomFactor));
+    }
+
     public List<Entity> getEntities()
     {
         return currentSport.getCurrentStrategyEntities();
@@ -987,6 +1027,71 @@ public final class SceneController implements Serializable, InstanceChangedObser
                 currentSport.getMaxFrameIndex());
     }
 
+    /**
+     * Returns how late the last frame shown by the running animation was
+     * compared to the wall clock, in milliseconds.
+     *
+     * @return The lag in milliseconds.
+     */
+    public float getAnimationLagInMillis()
+    {
+        return ((currentSport == null) ?
+                0f :
+                currentSport.getAnimationLagInMillis());
+    }
+
+    /**
+     * Returns the number of frames the running animation skipped to keep up
+     * with the wall clock since it was started.
+     *
+     * @return The number of dropped frames.
+     */
+    public int getAnimationDroppedFrameCount()
+    {
+        return ((currentSport == null) ?
+                0 :
+                currentSport.getAnimationDroppedFrameCount());
+    }
+
+    public Interpolation getAnimationInterpolation()
+    {
+        return currentSport.getAnimationInterpolation();
+    }
+
+    public int getAnimationFramesPerSecond()
+    {
+        return currentSport.getAnimationFramesPerSecond();
+    }
+
+    public float getAnimationPlaybackSpeed()
+    {
+        return currentSport.getAnimationPlaybackSpeed();
+    }
+
+    public PlaybackMode getAnimationPlaybackMode()
+    {
+        return currentSport.getAnimationPlaybackMode();
+    }
+
+    public boolean isAnimationPoseQuantized()
+    {
+        return currentSport.isAnimationPoseQuantized();
+    }
+
+    /**
+     * Returns the distance error allowed when the real-time recording of the
+     * current strategy is simplified, {@code 0} if it is not.
+     */
+    public float getAnimationSimplificationTolerance()
+    {
+        return currentSport.getAnimationSimplificationTolerance();
+    }
+
+    public boolean isAnimationReversed()
+    {
+        return currentSport.isAnimationReversed();
+    }
+
     public boolean isAnimationFrameByFrame()
     {
         return currentSport.isCurrentStrategyFrameByFrame();
@@ -1042,9 +1147,16 @@ public final class SceneController implements Serializable, InstanceChangedObser
 
     public void setCurrentStrategyPreviewImage(JPanel panel)
     {
-        BufferedImage image = new BufferedImage(panel.getWidth(), panel.getHeight(),
+        double scale = Math.min((double) MAX_PREVIEW_IMAGE_SIZE /
+                                Math.max(Math.max(panel.getWidth(), panel.getHeight()), 1),
+                                1.0);
+        BufferedImage image = new BufferedImage(Math.max((int) (panel.getWidth() * scale), 1),
+                                                Math.max((int) (panel.getHeight() * scale), 1),
                                                 BufferedImage.TYPE_INT_ARGB);
-        panel.paint(image.getGraphics());
+        Graphics2D g2d = image.createGraphics();
+        g2d.scale(scale, scale);
+        panel.paint(g2d);
+        g2d.dispose();
         currentSport.setCurrentStrategyPreviewImage(image);
     }
 
@@ -1068,6 +1180,135 @@ public final class SceneController implements Serializable, InstanceChangedObser
         currentSport.setCurrentFrame(frame);
     }
 
+    /**
+     * Sets how the positions of the entities are computed between two
+     * keyframes of the current strategy's frame by frame animation.
+     *
+     * @param value The new {@link Interpolation}.
+     */
+    public void setAnimationInterpolation(Interpolation value)
+    {
+        currentSport.setAnimationInterpolation(value);
+    }
+
+    /**
+     * Sets the error allowed when the real-time recording of the current
+     * strategy is simplified, once the recording ends. The simplification
+     * removes the recorded poses that can be interpolated back from the
+     * others.
+     * <p>
+     * A distance of {@code 0} keeps every recorded pose.
+     *
+     * @param distance       The maximum distance error, in pixels, from
+     *                       {@code 0}.
+     * @param angleInRadians The maximum angle error, in radians, greater
+     *                       than {@code 0}.
+     * @throws IllegalArgumentException If a tolerance is out of range.
+     */
+    public void setAnimationSimplificationTolerances(float distance, float angleInRadians)
+    {
+        currentSport.setAnimationSimplificationTolerances(distance, angleInRadians);
+    }
+
+    /**
+     * Sets the frame rate of the current strategy's animation. What was
+     * already recorded is resampled so the animation keeps its duration.
+     *
+     * @param value The number of frames per second, from 10 to 120.
+     */
+    public void setAnimationFramesPerSecond(int value)
+    {
+        currentSport.setAnimationFramesPerSecond(value);
+    }
+
+    /**
+     * Sets the normal playback speed of the current strategy's animation.
+     * Speeds under 1 play in slow motion.
+     *
+     * @param value The playback speed, from 0.1 to 4.
+     */
+    public void setAnimationPlaybackSpeed(float value)
+    {
+        currentSport.setAnimationPlaybackSpeed(value);
+    }
+
+    /**
+     * Sets what the current strategy's animation does when playback reaches
+     * the end of its playback range: stop, loop or play back in ping-pong.
+     *
+     * @param value The new {@link PlaybackMode}.
+     */
+    public void setAnimationPlaybackMode(PlaybackMode value)
+    {
+        currentSport.setAnimationPlaybackMode(value);
+    }
+
+    /**
+     * Sets whether the current strategy's animation plays backward. Playing
+     * from the start backward plays the whole animation backward.
+     *
+     * @param value {@code true} to play backward, {@code false} to play
+     *              forward.
+     */
+    public void setAnimationReversed(boolean value)
+    {
+        currentSport.setAnimationReversed(value);
+    }
+
+    /**
+     * Stores the poses recorded in real time in the current strategy's
+     * animation on 16 bits per value. It takes half the memory and disk space
+     * with a precision under a tenth of a pixel.
+     *
+     * @param value {@code true} to store the poses compactly, {@code false}
+     *              to store them at full precision.
+     */
+    public void setAnimationPoseQuantized(boolean value)
+    {
+        currentSport.setAnimationPoseQuantized(value);
+    }
+
+    /**
+     * Starts the playback range of the current strategy's animation at its
+     * current frame.
+     */
+    public void setAnimationPlaybackRangeStart()
+    {
+        currentSport.setAnimationPlaybackRangeStart();
+    }
+
+    /**
+     * Ends the playback range of the current strategy's animation at its
+     * current frame.
+     */
+    public void setAnimationPlaybackRangeEnd()
+    {
+        currentSport.setAnimationPlaybackRangeEnd();
+    }
+
+    public void clearAnimationPlaybackRange()
+    {
+        currentSport.clearAnimationPlaybackRange();
+    }
+
+    /**
+     * Inserts the skip amount of time at the current frame of the current
+     * strategy's animation, moving the rest of the animation later.
+     */
+    public void insertAnimationTime()
+    {
+        currentSport.insertAnimationTime();
+    }
+
+    /**
+     * Deletes the frames of the playback range of the current strategy's
+     * animation, moving the frames that follow earlier.
+     */
+    public void deleteAnimationPlaybackRange()
+    {
+        currentSport.deleteAnimationPlaybackRange();
+    }
+
     public void addAnimationPropertiesChangedObserver(AnimationPropertiesChangedObserver observer)
     {
         currentSport.addAnimationPropertiesChangedObserver(observer);
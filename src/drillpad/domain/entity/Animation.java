@@ -4,18 +4,15 @@ import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.Composite;
 import java.awt.Graphics2D;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.awt.geom.Point2D;
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
-import javax.swing.Timer;
-
+import drillpad.domain.event.AnimationBakeObserver;
 import drillpad.domain.event.AnimationPropertiesChangedObservable;
 import drillpad.domain.event.AnimationPropertiesChangedObserver;
 import drillpad.general.utility.MathUtilities;
@@ -27,68 +24,126 @@ import drillpad.general.utility.MathUtilities;
 public class Animation implements AnimationPropertiesChangedObservable, Serializable
 {
     private final List<Entity> entities;
-    private final List<HashMap<Entity, PositionAndAngle>> frames;
-    private final List<Integer> previousFrames;
-    private Timer timer;
-    private final int framesPerSecond = 30;
-    private final int normalSpeedInFrames = 1;
-    private final int fasterSpeedInFrames = 4;
-    private Entity selectedEntity;
-    private int playSpeedInFrames;
+    private final DeltaTrack frames;
+    private final KeyframeTrack keyframes;
+    private transient AnimationEngine engine;
+    private transient PlaybackClock clock;
+    private transient HashMap<Entity, Trail> trails;
+    private transient InputRecorder inputRecorder;
+    private transient int lastRecordedFrame;
+    private transient FrameSnapshot lastPresentedSnapshot;
+    private transient CachedFrameProvider frameCache;
+    private transient BakedAnimation bakedFrames;
+    private transient int trackVersion;
+    private static final int FRAME_CACHE_CAPACITY = 256;
+    private static final int PREFETCH_FRAME_COUNT = 8;
+    static final int MIN_FRAMES_PER_SECOND = 10;
+    static final int MAX_FRAMES_PER_SECOND = 120;
+    static final float MIN_PLAYBACK_SPEED = 0.1f;
+    static final float MAX_PLAYBACK_SPEED = 4f;
+    private final float fasterSpeedFactor = 4f;
+    private final List<Entity> recordedEntities;
+    private int framesPerSecond = 30;
+    private float normalSpeed = 1f;
+    private float playSpeed;
+    private PlaybackMode playbackMode;
+    private boolean isReversed;
+    private int playbackRangeStart;
+    private int playbackRangeEnd;
     private int skipAmountInSeconds;
     private int currentFrame;
     private boolean isRecording;
     private boolean isFrameByFrame = true;
+    // NOTE(Eric): The simplification is lossy, it is off until it is chosen.
+    private float simplificationTolerance = 0f;
+    private float simplificationAngleTolerance = MathUtilities.toRadians(2f);
 
     private transient List<AnimationPropertiesChangedObserver> animationChangedObservers;
 
     Animation(List<Entity> entities)
     {
         this.entities = entities;
-        frames = new ArrayList<>();
-        previousFrames = new ArrayList<>();
+        frames = new DeltaTrack();
+        keyframes = new KeyframeTrack();
+        recordedEntities = new ArrayList<>();
         animationChangedObservers = new ArrayList<>();
-        timer = new Timer(1000 / framesPerSecond, new ActionListener()
-                  {
-                      @Override
-                      public void actionPerformed(ActionEvent e)
-                      {
-                          runAnimation();
-                      }
-                  });
+        clock = new PlaybackClock(framesPerSecond);
+        trails = new HashMap<>();
+        frameCache = createFrameCache();
         currentFrame = 0;
-        playSpeedInFrames = normalSpeedInFrames;
+        playSpeed = normalSpeed;
+        playbackMode = PlaybackMode.ONCE;
+        isReversed = false;
+        playbackRangeStart = -1;
+        playbackRangeEnd = -1;
         skipAmountInSeconds = 3;
     }
 
+    // NOTE(Eric): The engine thread writes to the tracks while recording.
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException
+    {
+        out.defaultWriteObject();
+    }
+
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
     {
         in.defaultReadObject();
-        timer = new Timer(1000 / framesPerSecond, new ActionListener()
-                  {
-                      @Override
-                      public void actionPerformed(ActionEvent e)
-                      {
-                          runAnimation();
-                      }
-                  });
+        clock = new PlaybackClock(framesPerSecond);
+        trails = new HashMap<>();
+        frameCache = createFrameCache();
 
         // NOTE(Eric): Every observer will need to add itself back after deserialization
         animationChangedObservers = new ArrayList<>();
     }
 
+    private CachedFrameProvider createFrameCache()
+    {
+        FrameProvider tracks = new FrameProvider()
+        {
+            @Override
+            public FrameSnapshot getFrame(int frame)
+            {
+                return materializeFrame(frame);
+            }
+        };
+        return new CachedFrameProvider(tracks, FRAME_CACHE_CAPACITY);
+    }
+
     /**
      * Starts the animation from the last known position. If the animation is
-     * already at the end, nothing happens.
+     * already at the end and does not loop, nothing happens.
      */
     void start()
     {
-        if (currentFrame < frames.size() ||
+        if (!isRunning() &&
+            playSpeed < 0f &&
+            currentFrame == 0 &&
+            !isLooping() &&
+            getFrameCount() > 0)
+        {
+            // NOTE(Eric): Playing backward from the start plays the whole
+            // animation backward.
+            currentFrame = getFrameCount() - 1;
+        }
+
+        if (currentFrame < getFrameCount() ||
             (isRecording &&
              !isFrameByFrame &&
-             currentFrame <= frames.size()))
+             currentFrame <= getFrameCount()) ||
+            (isLooping() &&
+             getFrameCount() > 0))
         {
-            timer.start();
+            if (!isRunning())
+            {
+                if (isRecordingRealTime())
+                {
+                    startInputRecording();
+                }
+                lastPresentedSnapshot = null;
+                clock.start(currentFrame, playSpeed, createPlaybackRange());
+                engine = new AnimationEngine(this, clock, currentFrame);
+                engine.start();
+            }
         }
     }
 
@@ -98,7 +153,7 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
      */
     void pause()
     {
-        timer.stop();
+        stopEngine();
     }
 
     /**
@@ -106,14 +161,24 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
      */
     void stop()
     {
-        timer.stop();
+        stopEngine();
         currentFrame = 0;
-        if (frames.size() > 0)
+        if (getFrameCount() > 0)
         {
             updatePositions();
         }
     }
 
+    private void stopEngine()
+    {
+        if (engine != null)
+        {
+            engine.stop();
+            engine = null;
+            finishInputRecording();
+        }
+    }
+
     /**
      *
      */
@@ -121,12 +186,13 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
     {
         if (isPressed)
         {
-            playSpeedInFrames = fasterSpeedInFrames;
+            playSpeed = normalSpeed * fasterSpeedFactor;
         }
         else
         {
-            playSpeedInFrames = normalSpeedInFrames;
+            playSpeed = getNormalVelocity();
         }
+        clock.setSpeed(playSpeed);
     }
 
     /**
@@ -136,12 +202,13 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
     {
         if (isPressed)
         {
-            playSpeedInFrames = -fasterSpeedInFrames;
+            playSpeed = -normalSpeed * fasterSpeedFactor;
         }
         else
         {
-            playSpeedInFrames = normalSpeedInFrames;
+            playSpeed = getNormalVelocity();
         }
+        clock.setSpeed(playSpeed);
     }
 
     /**
@@ -153,90 +220,46 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
     {
         if (isRecording &&
             isFrameByFrame &&
-            !timer.isRunning())
+            !isRunning())
         {
-            int currentImageIndex = getCurrentFrameIndex();
-            if (!previousFrames.isEmpty() &&
-                currentFrame == previousFrames.get(currentImageIndex))
-            {
-                previousFrames.set(currentImageIndex, currentFrame);
-
-                // NOTE(Eric): Delete the rest of the animation for now.
-                // Latter, we could do something better here.
-                for (int i = previousFrames.size() - 1;
-                     i > currentImageIndex;
-                     --i)
-                {
-                    previousFrames.remove(i);
-                }
+            int length = framesPerSecond * skipAmountInSeconds;
+            int nextFrame;
 
-                for (int i = frames.size() - 1;
-                     i > currentFrame;
-                     --i)
-                {
-                    frames.remove(i);
-                }
-            }
-            else if (!previousFrames.isEmpty() &&
-                     currentFrame > previousFrames.get(currentImageIndex) &&
-                     currentFrame < frames.size() - 1)
+            // NOTE(Eric): A bake may be copying the tracks on another thread.
+            synchronized (this)
             {
-                // NOTE(Eric): Delete the rest of the animation for now.
-                // Latter, we could do something better here.
-                for (int i = previousFrames.size() - 1;
-                     i > currentImageIndex;
-                     --i)
-                {
-                    previousFrames.remove(i);
-                }
-
-                for (int i = frames.size() - 1;
-                     i > currentFrame;
-                     --i)
-                {
-                    frames.remove(i);
-                }
+                nextFrame = keyframes.recordKeyframe(currentFrame, entities, length);
 
-                previousFrames.add(currentFrame);
-            }
-            else
-            {
-                previousFrames.add(currentFrame);
+                // NOTE(Eric): The new keyframe only replaces what was recorded
+                // in real time over the frames it lasts, the poses recorded
+                // after them are kept.
+                frames.clearFrames(currentFrame, nextFrame);
+                clearDecodedFrames();
             }
 
-            for (int i = framesPerSecond * skipAmountInSeconds;
-                 i > 0;
-                 --i)
-            {
-                HashMap<Entity, PositionAndAngle> map = new HashMap<>();
-                for (Entity entity : entities)
-                {
-                    map.put(entity,
-                            new PositionAndAngle(new Point2D.Float(entity.getPosition().x,
-                                                                   entity.getPosition().y),
-                                                 entity.getAngleInRadians()));
-                }
-                if (currentFrame == frames.size())
-                {
-                    frames.add(map);
-                }
-                else
-                {
-                    frames.set(currentFrame, map);
-                }
-                ++currentFrame;
-            }
+            currentFrame = nextFrame;
             animationPropertiesChanged();
         }
         else
         {
             currentFrame += framesPerSecond * skipAmountInSeconds;
-            if (currentFrame >= frames.size())
+            if (currentFrame >= getFrameCount() &&
+                isLooping())
+            {
+                currentFrame = createPlaybackRange().getFrame(currentFrame);
+            }
+
+            if (currentFrame >= getFrameCount())
             {
                 stop();
             }
-            else if (!timer.isRunning())
+            else if (!isRunning())
+            {
+                updatePositions();
+            }
+            else
             {
+                clock.seek(currentFrame);
                 updatePositions();
             }
         }
@@ -255,9 +278,14 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
             currentFrame = 0;
         }
 
-        if (!timer.isRunning() &&
-            !frames.isEmpty())
+        if (!isRunning() &&
+            getFrameCount() > 0)
+        {
+            updatePositions();
+        }
+        else if (isRunning())
         {
+            clock.seek(currentFrame);
             updatePositions();
         }
     }
@@ -271,28 +299,28 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
         {
             Composite previousComposite = g2d.getComposite();
             for (int index = 0;
-                 index < previousFrames.size();
+                 index < keyframes.getKeyframeCount();
                  ++index)
             {
                 float weight = 0f;
-                if (previousFrames.size() > 1)
+                if (keyframes.getKeyframeCount() > 1)
                 {
-                    weight = (float) index / (float) (previousFrames.size() - 1);
+                    weight = (float) index / (float) (keyframes.getKeyframeCount() - 1);
                 }
                 float alpha = MathUtilities.lerpPrecise(0.2f, 0.8f, weight);
                 g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER,
                                                             alpha));
-                HashMap<Entity, PositionAndAngle> map = frames.get(previousFrames.get(index));
-                for (Entity entity : map.keySet())
+                for (int slot = 0;
+                     slot < keyframes.getSlotCount();
+                     ++slot)
                 {
-                    Point2D.Float previousPosition = entity.getPosition();
-                    float previousAngle = entity.getAngleInRadians();
-                    PositionAndAngle positionAndAngle = map.get(entity);
-                    entity.setPosition(positionAndAngle.position);
-                    entity.setAngleInRadians(positionAndAngle.angleInRadians);
-                    entity.draw(g2d);
-                    entity.setPosition(previousPosition);
-                    entity.setAngleInRadians(previousAngle);
+                    if (keyframes.hasPose(index, slot))
+                    {
+                        keyframes.getEntity(slot).draw(g2d,
+                                                       keyframes.getX(index, slot),
+                                                       keyframes.getY(index, slot),
+                                                       keyframes.getAngle(index, slot));
+                    }
                 }
             }
             g2d.setComposite(previousComposite);
@@ -303,118 +331,95 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
     {
         int radiusKeyPositions = 10;
         int radiusArrow = 3;
-        HashMap<Entity, PositionAndAngle> firstPositions = new HashMap<>();
-        HashMap<Entity, PositionAndAngle> lastPositions = new HashMap<>();
-
-        // Get every frames position by Entity (To be able to draw line)
-        HashMap<Entity, List<PositionAndAngle>> entityPositions = new HashMap<>();
-
+        BasicStroke playingElementStroke = new BasicStroke(0.1f,
+                                                           BasicStroke.CAP_BUTT,
+                                                           BasicStroke.JOIN_MITER,
+                                                           1.0f, new float[]
+                                                           {
+                                                               5.0f
+                                                           }, 0f);
+        BasicStroke arrowStroke = new BasicStroke(radiusArrow);
+        int frameCount = getFrameCount();
+        Trail[] entityTrails = new Trail[entities.size()];
+
+        // Trace lines between the positions of each entity
         for (int index = 0;
-             index < frames.size();
+             index < entities.size();
              ++index)
         {
-            HashMap<Entity, PositionAndAngle> map = frames.get(index);
-
-            for (Entity entity : map.keySet())
+            Entity entity = entities.get(index);
+            entityTrails[index] = getTrail(entity, frameCount);
+            g2d.setColor(entity.entityType.getColor());
+            if (entity instanceof PlayingElement)
             {
-                entityPositions.putIfAbsent(entity, new ArrayList<>());
-
-                for (Entity newEntity : entityPositions.keySet())
-                {
-                    if (newEntity.equals(entity))
-                    {
-                        entityPositions.get(newEntity).add(map.get(entity));
-                    }
-                }
+                g2d.setStroke(playingElementStroke);
             }
-        }
-
-        // Trace lines between positions.
-        for (HashMap.Entry<Entity, List<PositionAndAngle>> entry : entityPositions.entrySet())
-        {
-            for (int index = 0;
-                 index < entry.getValue().size() - 1;
-                 ++index)
+            else
             {
-                Point2D.Float pos = entry.getValue().get(index).position;
-                float angle = entry.getValue().get(index).angleInRadians;
-                Point2D.Float nextPos = entry.getValue().get(index + 1).position;
-                float nexAngle = entry.getValue().get(index + 1).angleInRadians;
-                firstPositions.putIfAbsent(entry.getKey(),
-                                           new PositionAndAngle(pos, nexAngle));
-                lastPositions.put(entry.getKey(),
-                                  new PositionAndAngle(nextPos, angle));
-
-                g2d.setColor(entry.getKey().entityType.getColor());
-
-                if (entry.getKey() instanceof PlayingElement)
-                {
-                    g2d.setStroke(new BasicStroke(0.1f,
-                                                  BasicStroke.CAP_BUTT,
-                                                  BasicStroke.JOIN_MITER,
-                                                  1.0f, new float[]
-                                                  {
-                                                      5.0f
-                            }, 0f));
-                }
-                else
-                {
-                    g2d.setStroke(new BasicStroke(radiusArrow));
-                }
-
-                g2d.drawLine((int) pos.getX(),
-                             (int) pos.getY(),
-                             (int) nextPos.getX(),
-                             (int) nextPos.getY());
-
+                g2d.setStroke(arrowStroke);
             }
+            g2d.draw(entityTrails[index].getPath());
         }
 
         // Draw first positions with transparency
         Composite previousComposite = g2d.getComposite();
         g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER,
                                                     0.3f));
-        for (Entity entity : firstPositions.keySet())
+        for (int index = 0;
+             index < entities.size();
+             ++index)
         {
-            Point2D.Float previousPosition = entity.getPosition();
-            float previousAngle = entity.getAngleInRadians();
-            PositionAndAngle positionAndAngle = firstPositions.get(entity);
-            entity.setPosition(positionAndAngle.position);
-            entity.setAngleInRadians(positionAndAngle.angleInRadians);
-            entity.draw(g2d);
-            entity.setPosition(previousPosition);
-            entity.setAngleInRadians(previousAngle);
+            if (entityTrails[index].isAnimated())
+            {
+                float[] firstPose = entityTrails[index].getFirstPose();
+                entities.get(index).draw(g2d,
+                                         firstPose[0],
+                                         firstPose[1],
+                                         firstPose[2]);
+            }
         }
         g2d.setComposite(previousComposite);
 
         // Draw last positions
-        for (Entity entity : lastPositions.keySet())
+        for (int index = 0;
+             index < entities.size();
+             ++index)
         {
-            Point2D.Float previousPosition = entity.getPosition();
-            float previousAngle = entity.getAngleInRadians();
-            PositionAndAngle positionAndAngle = lastPositions.get(entity);
-            entity.setPosition(positionAndAngle.position);
-            entity.setAngleInRadians(positionAndAngle.angleInRadians);
-            entity.draw(g2d);
-            entity.setPosition(previousPosition);
-            entity.setAngleInRadians(previousAngle);
+            if (entityTrails[index].isAnimated())
+            {
+                float[] lastPose = entityTrails[index].getLastPose();
+                entities.get(index).draw(g2d,
+                                         lastPose[0],
+                                         lastPose[1],
+                                         lastPose[2]);
+            }
         }
 
         // Draw every "inter" positions
         for (int index = 0;
-             index < previousFrames.size();
+             index < entities.size();
              ++index)
         {
-            HashMap<Entity, PositionAndAngle> map = frames.get(previousFrames.get(index));
+            Entity entity = entities.get(index);
+            int slot = keyframes.getSlot(entity);
+            Trail trail = entityTrails[index];
+            if (slot == -1 ||
+                !trail.isAnimated())
+            {
+                continue;
+            }
 
-            for (Entity entity : map.keySet())
+            g2d.setColor(entity.entityType.getColor());
+            for (int keyframe = 0;
+                 keyframe < keyframes.getKeyframeCount();
+                 ++keyframe)
             {
-                if (!lastPositions.get(entity).equals(map.get(entity)) &&
-                    !firstPositions.get(entity).equals(map.get(entity)))
+                if (keyframes.hasPose(keyframe, slot) &&
+                    !isSameKeyframePose(keyframe, slot, trail.getFirstPose()) &&
+                    !isSameKeyframePose(keyframe, slot, trail.getLastPose()))
                 {
-                    g2d.setColor(entity.entityType.getColor());
-                    g2d.fillOval((int) map.get(entity).position.getX() - radiusKeyPositions,
-                                 (int) map.get(entity).position.getY() - radiusKeyPositions,
+                    g2d.fillOval((int) keyframes.getX(keyframe, slot) - radiusKeyPositions,
+                                 (int) keyframes.getY(keyframe, slot) - radiusKeyPositions,
                                  radiusKeyPositions * 2,
                                  radiusKeyPositions * 2);
                 }
@@ -424,70 +429,428 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
     }
 
     /**
-     * Advance the animation by one frame and moves all entities to their new
-     * positions
+     * Returns the {@link Trail} of the specified {@link Entity} up to the
+     * specified frame.
+     * <p>
+     * The trail is kept between calls and only the frames added since the
+     * last call are computed, unless the frames already in the trail changed.
+     *
+     * @param entity     The {@code Entity} whose trail is requested.
+     * @param frameCount The number of frames of the animation.
+     * @return The trail of the {@code Entity}.
      */
-    private void runAnimation()
+    private synchronized Trail getTrail(Entity entity, int frameCount)
     {
-        if (isRecording &&
-            !isFrameByFrame &&
-            selectedEntity != null)
+        Trail trail = trails.get(entity);
+        if (trail == null ||
+            trail.getFrameCount() > frameCount)
+        {
+            trail = new Trail();
+            trails.put(entity, trail);
+        }
+
+        float[] pose = new float[3];
+        for (int frame = trail.getFrameCount();
+             frame < frameCount;
+             ++frame)
+        {
+            trail.addFrame(getPose(frame, entity, pose) ? pose : null);
+        }
+
+        return trail;
+    }
+
+    /**
+     * Discards the {@link Trail} of the specified {@link Entity} if it
+     * contains the specified frame.
+     *
+     * @param entity The {@code Entity} whose pose changed.
+     * @param frame  The first frame that changed.
+     */
+    private synchronized void invalidateTrail(Entity entity, int frame)
+    {
+        Trail trail = trails.get(entity);
+        if (trail != null &&
+            frame < trail.getFrameCount())
+        {
+            trails.remove(entity);
+        }
+    }
+
+    private boolean isSameKeyframePose(int keyframe, int slot, float[] pose)
+    {
+        return (keyframes.getX(keyframe, slot) == pose[0] &&
+                keyframes.getY(keyframe, slot) == pose[1] &&
+                keyframes.getAngle(keyframe, slot) == pose[2]);
+    }
+
+    /**
+     * Computes the poses of every animated {@link Entity} at the specified
+     * frame without moving any of them.
+     * <p>
+     * This is called by the {@link AnimationEngine} thread.
+     *
+     * @param frame     The frame to compute.
+     * @param nextFrame The frame shown after it.
+     * @param amount    How far toward {@code nextFrame} the poses are
+     *                  computed. This is only used in slow motion.
+     * @return The poses at the specified frame.
+     */
+    synchronized FrameSnapshot createSnapshot(int frame, int nextFrame, float amount)
+    {
+        if (!isPlayableFrame(frame))
+        {
+            return new FrameSnapshot(frame, new Entity[0], new float[0], 0);
+        }
+
+        FrameSnapshot snapshot = frameCache.getFrame(frame);
+        if (amount > 0f &&
+            nextFrame >= 0)
+        {
+            snapshot = snapshot.interpolate(frameCache.getFrame(nextFrame), amount);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Materializes the frames the {@link AnimationEngine} is about to show,
+     * after the specified frame in the direction of playback.
+     * <p>
+     * This is called by the {@link AnimationEngine} thread.
+     *
+     * @param frame     The frame just shown.
+     * @param nextFrame The frame shown after it.
+     */
+    synchronized void prefetchFrames(int frame, int nextFrame)
+    {
+        // NOTE(Eric): The frames ahead of a real-time recording are not
+        // recorded yet.
+        if (isRecordingRealTime() ||
+            nextFrame == frame)
+        {
+            return;
+        }
+
+        int direction = (nextFrame > frame) ? 1 : -1;
+        frameCache.prefetch(frame, direction, PREFETCH_FRAME_COUNT, getFrameCount());
+    }
+
+    /**
+     * Decodes the poses of every animated {@link Entity} at the specified
+     * frame from the tracks. The poses recorded in real time come after the
+     * keyframes so they take precedence over them.
+     *
+     * @param frame The frame to decode.
+     * @return The poses at the specified frame.
+     */
+    private synchronized FrameSnapshot materializeFrame(int frame)
+    {
+        if (frame < 0)
+        {
+            return new FrameSnapshot(frame, new Entity[0], new float[0], 0);
+        }
+        if (bakedFrames != null &&
+            frame < bakedFrames.getFrameCount())
+        {
+            return bakedFrames.getFrame(frame);
+        }
+
+        int keyframedCount = keyframes.getSlotCount();
+        int recordedCount = (frame < frames.getFrameCount()) ? frames.getSlotCount() : 0;
+        Entity[] snapshotEntities = new Entity[keyframedCount + recordedCount];
+        float[] poses = new float[snapshotEntities.length * 3];
+        float[] pose = new float[3];
+        int poseCount = 0;
+        for (int slot = 0; slot < keyframedCount; ++slot)
         {
-            if (currentFrame == frames.size())
+            if (keyframes.getPose(frame, slot, pose))
             {
-                frames.add(new HashMap<>());
+                snapshotEntities[poseCount] = keyframes.getEntity(slot);
+                System.arraycopy(pose, 0, poses, poseCount * 3, pose.length);
+                ++poseCount;
             }
-            frames.get(currentFrame).put(selectedEntity,
-                                         new PositionAndAngle(
-                                                 new Point2D.Float(selectedEntity.getPosition().x,
-                                                                   selectedEntity.getPosition().y),
-                                                 selectedEntity.getAngleInRadians()));
+        }
+        for (int slot = 0; slot < recordedCount; ++slot)
+        {
+            if (frames.getPose(frame, slot, pose))
+            {
+                snapshotEntities[poseCount] = frames.getEntity(slot);
+                System.arraycopy(pose, 0, poses, poseCount * 3, pose.length);
+                ++poseCount;
+            }
+        }
 
-            if (selectedEntity instanceof Player)
+        return new FrameSnapshot(frame, snapshotEntities, poses, poseCount);
+    }
+
+    /**
+     * Returns whether the animation keeps playing when it reaches the
+     * specified frame.
+     *
+     * @param frame The frame reached.
+     * @return {@code false} if the animation stops at this frame.
+     */
+    synchronized boolean isPlayableFrame(int frame)
+    {
+        // NOTE(Eric): In loop and ping-pong modes, the clock never returns a
+        // frame past the end of the animation.
+        // NOTE(Eric): A real-time recording extends the animation as it goes,
+        // the last frames are only recorded a few frames later.
+        return !(frame < 0 ||
+                 (frame > getFrameCount() && !isRecordingRealTime()) ||
+                 (!isRecording && frame >= getFrameCount()));
+    }
+
+    private boolean isRecordingRealTime()
+    {
+        return (isRecording &&
+                !isFrameByFrame &&
+                !recordedEntities.isEmpty());
+    }
+
+    /**
+     * Moves the animation to the frame of the specified snapshot and moves all
+     * entities to their new positions.
+     * <p>
+     * This is called on the event dispatch thread with the latest snapshot
+     * published by the {@link AnimationEngine}. When recording in real time,
+     * the recorded entities are left where the user put them.
+     *
+     * @param snapshot The latest snapshot.
+     */
+    void presentSnapshot(FrameSnapshot snapshot)
+    {
+        // NOTE(Eric): The same snapshot can be presented twice when the engine
+        // publishes while a presentation is running. In slow motion, several
+        // snapshots share the same frame so the frame can not be compared.
+        if (snapshot == lastPresentedSnapshot)
+        {
+            return;
+        }
+        lastPresentedSnapshot = snapshot;
+        currentFrame = snapshot.getFrame();
+
+        if (!isPlayableFrame(currentFrame))
+        {
+            stop();
+        }
+        else if (isRecordingRealTime())
+        {
+            snapshot.apply(recordedEntities);
+            animationPropertiesChanged();
+        }
+        else
+        {
+            snapshot.apply();
+            animationPropertiesChanged();
+        }
+    }
+
+    /**
+     * Pushes the current pose of the recorded entities to the
+     * {@link InputRecorder}. This must be called on the event dispatch thread
+     * every time the user moves or turns one of them.
+     */
+    void captureInput()
+    {
+        if (inputRecorder != null)
+        {
+            inputRecorder.capture();
+        }
+    }
+
+    private synchronized void startInputRecording()
+    {
+        inputRecorder = new InputRecorder(recordedEntities);
+        inputRecorder.capture();
+        recordSelectedEntities(currentFrame);
+        lastRecordedFrame = currentFrame;
+    }
+
+    /**
+     * Records the frames up to the specified one from the input captured by
+     * the {@link InputRecorder}. Every frame since the last recorded one gets
+     * the poses resampled at the time it was due, including the frames that
+     * were dropped.
+     * <p>
+     * This is called by the {@link AnimationEngine} thread.
+     *
+     * @param frame The last frame to record.
+     */
+    synchronized void recordInput(int frame)
+    {
+        if (inputRecorder == null)
+        {
+            return;
+        }
+
+        Entity[] inputEntities = inputRecorder.getEntities();
+        float[] poses = new float[inputEntities.length * 3];
+        for (int recordedFrame = lastRecordedFrame + 1;
+             recordedFrame <= frame;
+             ++recordedFrame)
+        {
+            if (inputRecorder.resample(clock.getFrameTime(recordedFrame), poses))
             {
-                Player selectedPlayer = (Player) selectedEntity;
-                for (Entity entity : entities)
+                if (recordedFrame >= frames.getFrameCount())
                 {
-                    if (entity instanceof PlayingElement)
-                    {
-                        PlayingElement pe = (PlayingElement) entity;
-                        if (isPlayingElementOwner(pe, selectedPlayer))
-                        {
-                            frames.get(currentFrame).put(pe,
-                                                         new PositionAndAngle(
-                                                                 new Point2D.Float(pe.getPosition().x,
-                                                                                   pe.getPosition().y),
-                                                                 pe.getAngleInRadians()));
-                        }
-                    }
+                    frames.setFrameCount(recordedFrame + 1);
+                }
+                for (int index = 0; index < inputEntities.length; ++index)
+                {
+                    frames.record(recordedFrame, inputEntities[index],
+                                  poses[index * 3],
+                                  poses[index * 3 + 1],
+                                  poses[index * 3 + 2]);
+                    invalidateTrail(inputEntities[index], recordedFrame);
                 }
+                invalidateDecodedFrames(recordedFrame);
             }
+            lastRecordedFrame = recordedFrame;
+        }
+    }
+
+    /**
+     * Records the frames left up to the current one and stops capturing the
+     * input.
+     */
+    private synchronized void finishInputRecording()
+    {
+        if (inputRecorder != null)
+        {
+            recordInput(currentFrame);
+            inputRecorder = null;
+        }
+    }
+
+    /**
+     * Records the current pose of every selected entity, and of the playing
+     * elements they own, in the specified frame.
+     *
+     * @param frame The frame in which the poses are recorded.
+     */
+    private synchronized void recordSelectedEntities(int frame)
+    {
+        if (frame >= frames.getFrameCount())
+        {
+            frames.setFrameCount(frame + 1);
         }
-        updatePositions();
-        currentFrame += playSpeedInFrames;
 
-        // TODO(Eric): Add loopback functionality ?
-        if (currentFrame > frames.size() ||
-            currentFrame < 0 ||
-            (!isRecording && currentFrame == frames.size()))
+        for (int index = 0; index < recordedEntities.size(); ++index)
         {
-            stop();
+            Entity entity = recordedEntities.get(index);
+            frames.record(frame, entity);
+            invalidateTrail(entity, frame);
         }
+        invalidateDecodedFrames(frame);
     }
 
     private void updatePositions()
     {
-        if (!frames.isEmpty())
+        applyCurrentFrame();
+        animationPropertiesChanged();
+    }
+
+    private synchronized void applyCurrentFrame()
+    {
+        frameCache.getFrame(currentFrame).apply();
+    }
+
+    /**
+     * Discards the trails, the cached frames and the baked frames after a
+     * change that can affect any frame of the tracks.
+     */
+    private synchronized void clearDecodedFrames()
+    {
+        trails.clear();
+        frameCache.clear();
+        bakedFrames = null;
+        ++trackVersion;
+    }
+
+    /**
+     * Discards the cached frames at or after the specified frame and the
+     * baked frames after a change to the tracks at that frame.
+     *
+     * @param frame The first frame that changed.
+     */
+    private synchronized void invalidateDecodedFrames(int frame)
+    {
+        frameCache.invalidate(frame);
+        bakedFrames = null;
+        ++trackVersion;
+    }
+
+    /**
+     * Computes the pose of every animated {@link Entity} at every frame ahead
+     * of time, in parallel. Until the tracks change, the frames are then read
+     * from the baked poses instead of being decoded from the tracks.
+     * <p>
+     * The bake works on a copy of the tracks, so the animation can still be
+     * played and edited meanwhile. This blocks until the bake is done and must
+     * not be called on the event dispatch thread.
+     *
+     * @param observer The observer notified of the progress, which can also
+     *                 cancel the bake.
+     * @return {@code false} if the bake was cancelled or if the tracks changed
+     *         before it was done.
+     */
+    boolean bake(AnimationBakeObserver observer)
+    {
+        DeltaTrack recorded;
+        KeyframeTrack keyframed;
+        int frameCount;
+        int version;
+        synchronized (this)
+        {
+            recorded = frames.copy();
+            keyframed = keyframes.copy();
+            frameCount = getFrameCount();
+            version = trackVersion;
+        }
+
+        BakedAnimation baked = BakedAnimation.bake(recorded, keyframed, frameCount, observer);
+
+        synchronized (this)
         {
-            HashMap<Entity, PositionAndAngle> map = frames.get(currentFrame);
-            for (Entity entity : map.keySet())
+            if (baked == null ||
+                version != trackVersion)
             {
-                entity.setPosition(map.get(entity).position);
-                entity.setAngleInRadians(map.get(entity).angleInRadians);
+                return false;
             }
+
+            bakedFrames = baked;
+            frameCache.clear();
+            return true;
         }
+    }
 
-        animationPropertiesChanged();
+    /**
+     * Computes the pose of the specified {@link Entity} at the specified
+     * frame.
+     *
+     * @param frame  The frame to compute.
+     * @param entity The {@code Entity} whose pose is requested.
+     * @param pose   Receives the x, y and angle of the entity.
+     * @return {@code false} if the entity is not animated at this frame.
+     */
+    private boolean getPose(int frame, Entity entity, float[] pose)
+    {
+        int slot = frames.getSlot(entity);
+        if (slot != -1 &&
+            frame < frames.getFrameCount() &&
+            frames.getPose(frame, slot, pose))
+        {
+            return true;
+        }
+
+        slot = keyframes.getSlot(entity);
+        return (slot != -1 && keyframes.getPose(frame, slot, pose));
+    }
+
+    private synchronized int getFrameCount()
+    {
+        return Math.max(frames.getFrameCount(), keyframes.getFrameCount());
     }
 
     private boolean isPlayingElementOwner(PlayingElement playingElement, Player player)
@@ -518,7 +881,7 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
             int currentSeconds = currentFrames / framesPerSecond;
             currentFrames -= currentSeconds * framesPerSecond;
 
-            int maxFrames = frames.size();
+            int maxFrames = getFrameCount();
             int maxMinutes = maxFrames / (framesPerSecond * secondsPerMinute);
             maxFrames -= maxMinutes * (framesPerSecond * secondsPerMinute);
             int maxSeconds = maxFrames / framesPerSecond;
@@ -554,30 +917,13 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
         int result = currentFrame;
         if (isFrameByFrame)
         {
-            if (previousFrames.isEmpty())
+            if (keyframes.isEmpty())
             {
                 result = 0;
             }
-            else if (previousFrames.size() == 1)
-            {
-                result = 1;
-            }
-            else if (currentFrame >= previousFrames.get(previousFrames.size() - 1))
-            {
-                result = previousFrames.size();
-            }
             else
             {
-                for (int frameIndex = 0;
-                     frameIndex < previousFrames.size() - 1;
-                     ++frameIndex)
-                {
-                    if (currentFrame < previousFrames.get(frameIndex + 1))
-                    {
-                        result = frameIndex + 1;
-                        break;
-                    }
-                }
+                result = keyframes.getKeyframeIndex(currentFrame) + 1;
             }
         }
 
@@ -589,27 +935,7 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
         int result = currentFrame;
         if (isFrameByFrame)
         {
-            if (previousFrames.size() <= 1)
-            {
-                result = 0;
-            }
-            else if (currentFrame > previousFrames.get(previousFrames.size() - 1))
-            {
-                result = previousFrames.size() - 1;
-            }
-            else
-            {
-                for (int frameIndex = 0;
-                     frameIndex < previousFrames.size() - 1;
-                     ++frameIndex)
-                {
-                    if (currentFrame < previousFrames.get(frameIndex + 1))
-                    {
-                        result = frameIndex;
-                        break;
-                    }
-                }
-            }
+            result = keyframes.getKeyframeIndex(currentFrame);
         }
 
         return result;
@@ -617,10 +943,10 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
 
     private int getTotalNumberOfFrames()
     {
-        int result = frames.size();
+        int result = getFrameCount();
         if (isFrameByFrame)
         {
-            result = previousFrames.size();
+            result = keyframes.getKeyframeCount();
         }
 
         return result;
@@ -630,19 +956,122 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
     {
         int result = 0;
         if (!isFrameByFrame &&
-            !frames.isEmpty())
+            getFrameCount() > 0)
         {
-            result = frames.size() - 1;
+            result = getFrameCount() - 1;
         }
         else if (isFrameByFrame &&
-                 !previousFrames.isEmpty())
+                 !keyframes.isEmpty())
         {
-            result = previousFrames.size() - 1;
+            result = keyframes.getKeyframeCount() - 1;
         }
 
         return result;
     }
 
+    Interpolation getInterpolation()
+    {
+        return keyframes.getInterpolation();
+    }
+
+    int getFramesPerSecond()
+    {
+        return framesPerSecond;
+    }
+
+    synchronized boolean isPoseQuantized()
+    {
+        return frames.isQuantized();
+    }
+
+    PlaybackMode getPlaybackMode()
+    {
+        return playbackMode;
+    }
+
+    /**
+     * Returns the distance error allowed when a real-time recording is
+     * simplified, {@code 0} if it is not.
+     */
+    float getSimplificationTolerance()
+    {
+        return simplificationTolerance;
+    }
+
+    boolean isReversed()
+    {
+        return isReversed;
+    }
+
+    /**
+     * Returns the speed of normal playback, which is negative when playing
+     * backward. A recording always plays forward.
+     *
+     * @return The number of frames played for each frame of wall-clock time.
+     */
+    private float getNormalVelocity()
+    {
+        return (isReversed && !isRecording) ?
+               -normalSpeed :
+               normalSpeed;
+    }
+
+    private boolean isLooping()
+    {
+        return (playbackMode != PlaybackMode.ONCE &&
+                !isRecording);
+    }
+
+    /**
+     * Computes the range played by the {@link PlaybackClock}. It is the whole
+     * animation unless a playback range was set, and it never wraps while
+     * recording.
+     *
+     * @return The range of frames played.
+     */
+    private PlaybackRange createPlaybackRange()
+    {
+        int frameCount = getFrameCount();
+        if (!isLooping())
+        {
+            return new PlaybackRange(PlaybackMode.ONCE, 0, frameCount);
+        }
+
+        int start = MathUtilities.clamp(playbackRangeStart, 0, frameCount);
+        int end = (playbackRangeEnd == -1) ?
+                  frameCount :
+                  MathUtilities.clamp(playbackRangeEnd, start, frameCount);
+
+        return new PlaybackRange(playbackMode, start, end);
+    }
+
+    float getPlaybackSpeed()
+    {
+        return normalSpeed;
+    }
+
+    /**
+     * Returns how late the last frame shown by the running animation was, in
+     * milliseconds.
+     *
+     * @return The lag in milliseconds.
+     */
+    float getPlaybackLagInMillis()
+    {
+        return clock.getLagInMillis();
+    }
+
+    /**
+     * Returns the number of frames skipped since the animation was started to
+     * keep up with the wall clock.
+     *
+     * @return The number of dropped frames.
+     */
+    int getDroppedFrameCount()
+    {
+        return clock.getDroppedFrameCount();
+    }
+
     boolean isRecording()
     {
         return isRecording;
@@ -655,7 +1084,7 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
 
     boolean isRunning()
     {
-        return timer.isRunning();
+        return (engine != null && engine.isRunning());
     }
 
     void setSkipAmountInSeconds(int value)
@@ -663,41 +1092,384 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
         skipAmountInSeconds = value;
     }
 
+    /**
+     * Sets what happens when playback reaches the end of the playback range.
+     * The mode applies immediately if the animation is running.
+     *
+     * @param value The new {@link PlaybackMode}.
+     */
+    void setPlaybackMode(PlaybackMode value)
+    {
+        playbackMode = value;
+        clock.setRange(createPlaybackRange());
+    }
+
+    /**
+     * Sets whether normal playback goes backward. The direction changes
+     * immediately if the animation is running.
+     * <p>
+     * Finding the poses at the previous frame costs the same as at the next
+     * one, so playing backward is as smooth as playing forward.
+     *
+     * @param value {@code true} to play backward, {@code false} to play
+     *              forward.
+     */
+    void setReversed(boolean value)
+    {
+        isReversed = value;
+        playSpeed = getNormalVelocity();
+        clock.setSpeed(playSpeed);
+    }
+
+    /**
+     * Makes the current frame the first frame of the playback range. The
+     * range is only used in loop and ping-pong modes.
+     */
+    void setPlaybackRangeStart()
+    {
+        playbackRangeStart = currentFrame;
+        if (playbackRangeEnd <= playbackRangeStart)
+        {
+            playbackRangeEnd = -1;
+        }
+        clock.setRange(createPlaybackRange());
+    }
+
+    /**
+     * Makes the current frame the last frame of the playback range. The range
+     * is only used in loop and ping-pong modes.
+     */
+    void setPlaybackRangeEnd()
+    {
+        playbackRangeEnd = currentFrame + 1;
+        if (playbackRangeStart >= playbackRangeEnd)
+        {
+            playbackRangeStart = -1;
+        }
+        clock.setRange(createPlaybackRange());
+    }
+
+    /**
+     * Makes the playback range cover the whole animation again.
+     */
+    void clearPlaybackRange()
+    {
+        playbackRangeStart = -1;
+        playbackRangeEnd = -1;
+        clock.setRange(createPlaybackRange());
+    }
+
+    /**
+     * Changes the frame rate of the animation. The poses recorded in real
+     * time and the keyframes are moved to the frames at the same time, so the
+     * animation keeps its duration.
+     * <p>
+     * A lower frame rate uses less memory on long animations, a higher one
+     * gives smoother slow motion.
+     *
+     * @param value The new number of frames per second, between
+     *              {@link #MIN_FRAMES_PER_SECOND} and
+     *              {@link #MAX_FRAMES_PER_SECOND}.
+     */
+    void setFramesPerSecond(int value)
+    {
+        value = MathUtilities.clamp(value, MIN_FRAMES_PER_SECOND, MAX_FRAMES_PER_SECOND);
+        if (value == framesPerSecond)
+        {
+            return;
+        }
+
+        boolean wasRunning = isRunning();
+        stopEngine();
+        synchronized (this)
+        {
+            frames.resample(framesPerSecond, value);
+            keyframes.resample(framesPerSecond, value);
+            currentFrame = DeltaTrack.resampleFrame(currentFrame, framesPerSecond, value);
+            if (playbackRangeStart != -1)
+            {
+                playbackRangeStart = DeltaTrack.resampleFrame(playbackRangeStart, framesPerSecond, value);
+            }
+            if (playbackRangeEnd != -1)
+            {
+                playbackRangeEnd = DeltaTrack.resampleFrame(playbackRangeEnd, framesPerSecond, value);
+            }
+            framesPerSecond = value;
+            clock.setFramesPerSecond(value);
+            clearDecodedFrames();
+        }
+
+        resumeAfterEdit(wasRunning);
+    }
+
+    /**
+     * Inserts {@link #skipAmountInSeconds} seconds at the current frame. Every
+     * entity holds its pose of the previous frame during the new frames, and
+     * the rest of the animation starts later.
+     */
+    void insertTime()
+    {
+        int frame = currentFrame;
+        int count = framesPerSecond * skipAmountInSeconds;
+        if (frame >= getFrameCount())
+        {
+            return;
+        }
+
+        boolean wasRunning = isRunning();
+        stopEngine();
+        synchronized (this)
+        {
+            frames.insertFrames(frame, count);
+            keyframes.insertFrames(frame, count);
+            if (playbackRangeStart >= frame)
+            {
+                playbackRangeStart += count;
+            }
+            if (playbackRangeEnd >= frame)
+            {
+                playbackRangeEnd += count;
+            }
+            clock.setRange(createPlaybackRange());
+            clearDecodedFrames();
+        }
+
+        resumeAfterEdit(wasRunning);
+    }
+
+    /**
+     * Deletes the frames of the playback range and moves the frames that
+     * follow earlier to fill the gap. The range then covers the whole
+     * animation again. Nothing is deleted if there is no range.
+     */
+    void deletePlaybackRange()
+    {
+        if (playbackRangeStart == -1 &&
+            playbackRangeEnd == -1)
+        {
+            return;
+        }
+
+        boolean wasRunning = isRunning();
+        stopEngine();
+        synchronized (this)
+        {
+            int from = Math.max(playbackRangeStart, 0);
+            int to = (playbackRangeEnd == -1) ? getFrameCount() : playbackRangeEnd;
+            frames.deleteFrames(from, to);
+            keyframes.deleteFrames(from, to);
+            if (currentFrame >= to)
+            {
+                currentFrame -= to - from;
+            }
+            else if (currentFrame > from)
+            {
+                currentFrame = from;
+            }
+            playbackRangeStart = -1;
+            playbackRangeEnd = -1;
+            clock.setRange(createPlaybackRange());
+            clearDecodedFrames();
+        }
+
+        resumeAfterEdit(wasRunning);
+    }
+
+    /**
+     * Restarts the engine stopped before an edit of the tracks, or shows the
+     * current frame again.
+     */
+    private void resumeAfterEdit(boolean wasRunning)
+    {
+        if (wasRunning)
+        {
+            start();
+        }
+        else if (getFrameCount() > 0)
+        {
+            updatePositions();
+        }
+        else
+        {
+            animationPropertiesChanged();
+        }
+    }
+
+    /**
+     * Stores the poses recorded in real time on 16 bits per value instead of
+     * 32, relative to the size of the playing field. The poses already
+     * recorded are converted.
+     *
+     * @param value  {@code true} to quantize the poses, {@code false} to store
+     *               them at full precision.
+     * @param width  The width of the playing field image, in pixels.
+     * @param height The height of the playing field image, in pixels.
+     * @see PoseQuantizer
+     */
+    synchronized void setPoseQuantized(boolean value, float width, float height)
+    {
+        frames.setQuantizer(value ? new PoseQuantizer(width, height) : null);
+        clearDecodedFrames();
+    }
+
+    /**
+     * Changes the normal playback speed. Fast forward and rewind play
+     * {@link #fasterSpeedFactor} times faster than this speed.
+     *
+     * @param value The number of frames played for each frame of wall-clock
+     *              time, between {@link #MIN_PLAYBACK_SPEED} and
+     *              {@link #MAX_PLAYBACK_SPEED}.
+     */
+    void setPlaybackSpeed(float value)
+    {
+        normalSpeed = MathUtilities.clamp(value, MIN_PLAYBACK_SPEED, MAX_PLAYBACK_SPEED);
+        playSpeed = getNormalVelocity();
+        clock.setSpeed(playSpeed);
+    }
+
     void setRecording(boolean value)
     {
+        if (isRecording &&
+            !value &&
+            !isFrameByFrame)
+        {
+            // NOTE(Eric): Let the engine record the last frames first.
+            stopEngine();
+            if (simplificationTolerance > 0f)
+            {
+                simplifyRecording();
+            }
+        }
         isRecording = value;
+        playSpeed = getNormalVelocity();
+        clock.setSpeed(playSpeed);
+    }
+
+    /**
+     * Removes the poses recorded in real time that can be interpolated back
+     * from the others within the simplification tolerances.
+     */
+    private synchronized void simplifyRecording()
+    {
+        frames.simplify(simplificationTolerance, simplificationAngleTolerance);
+        clearDecodedFrames();
+    }
+
+    /**
+     * Sets the error allowed when a real-time recording is simplified at the
+     * end of the recording. A distance tolerance of {@code 0} turns the
+     * simplification off.
+     *
+     * @param distance       The maximum distance error, in pixels, from
+     *                       {@code 0}.
+     * @param angleInRadians The maximum angle error, in radians. It must be
+     *                       greater than 0.
+     * @throws IllegalArgumentException If a tolerance is out of range.
+     */
+    void setSimplificationTolerances(float distance, float angleInRadians)
+    {
+        if (!(distance >= 0f) ||
+            !(angleInRadians > 0f))
+        {
+            throw new IllegalArgumentException("Invalid simplification tolerances");
+        }
+
+        simplificationTolerance = distance;
+        simplificationAngleTolerance = angleInRadians;
     }
 
     void setFrameByFrame(boolean value)
     {
         isFrameByFrame = value;
+
+        // NOTE(Eric): The time slider only stops on keyframes in frame by
+        // frame mode, so move to the closest one.
+        if (isFrameByFrame &&
+            !isRecording &&
+            !isRunning() &&
+            !keyframes.isEmpty())
+        {
+            currentFrame = keyframes.getKeyframeFrame(keyframes.getNearestKeyframeIndex(currentFrame));
+            updatePositions();
+        }
     }
 
-    void setSelectedEntity(Entity value)
+    void setInterpolation(Interpolation value)
     {
-        selectedEntity = value;
+        synchronized (this)
+        {
+            keyframes.setInterpolation(value);
+            clearDecodedFrames();
+        }
+        if (!isRunning() &&
+            getFrameCount() > 0)
+        {
+            updatePositions();
+        }
+    }
+
+    /**
+     * Sets the entities recorded during a real-time recording. The playing
+     * elements owned by a selected {@link Player} are recorded with it.
+     * <p>
+     * In real-time mode, the recording starts as soon as at least one
+     * {@link Entity} is selected and stops when none is.
+     *
+     * @param value The selected entities.
+     */
+    void setSelectedEntities(List<Entity> value)
+    {
+        // NOTE(Eric): The owned playing elements are found once here instead
+        // of on every frame, the capture path only walks this list.
+        recordedEntities.clear();
+        for (Entity selectedEntity : value)
+        {
+            addRecordedEntity(selectedEntity);
+            if (selectedEntity instanceof Player)
+            {
+                for (Entity entity : entities)
+                {
+                    if (entity instanceof PlayingElement &&
+                        isPlayingElementOwner((PlayingElement) entity, (Player) selectedEntity))
+                    {
+                        addRecordedEntity(entity);
+                    }
+                }
+            }
+        }
 
         if (!isFrameByFrame)
         {
-            if (selectedEntity == null)
+            if (recordedEntities.isEmpty())
             {
                 stop();
             }
             else
             {
+                // NOTE(Eric): Restart so the new selection gets its own
+                // InputRecorder.
+                pause();
                 start();
             }
         }
     }
 
+    private void addRecordedEntity(Entity entity)
+    {
+        if (!recordedEntities.contains(entity))
+        {
+            recordedEntities.add(entity);
+        }
+    }
+
     void setCurrentFrame(int frame)
     {
         if (!isRecording)
         {
             if (isFrameByFrame &&
-                !previousFrames.isEmpty())
+                !keyframes.isEmpty())
             {
-                currentFrame = previousFrames.get(frame);
+                currentFrame = keyframes.getKeyframeFrame(frame);
             }
             else
             {
@@ -743,38 +1515,4 @@ public class Animation implements AnimationPropertiesChangedObservable, Serializ
         }
     }
 
-    private class PositionAndAngle implements Serializable
-    {
-        private Point2D.Float position;
-        private float angleInRadians;
-
-        public PositionAndAngle(Point2D.Float position, float angleInRadians)
-        {
-            this.position = position;
-            this.angleInRadians = angleInRadians;
-        }
-
-        @Override
-        public boolean equals(Object obj)
-        {
-            if (obj == null)
-            {
-                return false;
-            }
-            if (obj.getClass() != this.getClass())
-            {
-                return false;
-            }
-            return (this.position.equals(((PositionAndAngle) obj).position) &&
-                    this.angleInRadians == ((PositionAndAngle) obj).angleInRadians);
-        }
-
-        @Override
-        public int hashCode()
-        {
-            return ((int) (position.hashCode() * angleInRadians));
-        }
-
-    }
-
 }
@@ -0,0 +1,179 @@
+package drillpad.domain.entity;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Plays an {@link Animation} on its own thread.
+ * <p>
+ * The engine wakes up when the {@link PlaybackClock} says the next frame is
+ * due, computes the poses of that frame into a {@link FrameSnapshot} and
+ * publishes it in an {@link AtomicReference}. The event dispatch thread then
+ * picks up the latest snapshot and applies it to the entities. If the event
+ * dispatch thread is busy painting or showing a dialog, the snapshots it
+ * missed are simply replaced by newer ones and playback stays on time.
+ * <p>
+ * When the animation is played slower than the normal speed, the engine also
+ * publishes the poses between two frames so slow motion stays smooth.
+ * <p>
+ * Once a frame is published, the engine decodes the next few frames in the
+ * direction of playback while it waits, so they come out of the cache of the
+ * {@link Animation} when they are due.
+ * <p>
+ * In loop and ping-pong modes, the {@link PlaybackClock} wraps the frames
+ * itself, so the engine keeps running and reaching the end of the range is
+ * just another frame.
+ * <p>
+ * The engine never modifies an {@link Entity}; every change to the scene is
+ * made on the event dispatch thread.
+ * <p>
+ * An engine is used for a single run of the animation. A new one is created
+ * every time the animation is started.
+ *
+ * @author Eric Perron
+ */
+class AnimationEngine implements Runnable
+{
+    // NOTE(Eric): While recording, a frame is recorded this many frames after
+    // it was due so the input captured around its time had a chance to reach
+    // the InputRecorder.
+    private static final int INPUT_LATENCY_IN_FRAMES = 2;
+
+    private final Animation animation;
+    private final PlaybackClock clock;
+    private final AtomicReference<Publication> latestPublication;
+    private final AtomicBoolean isPresentationPending;
+    private final Runnable presenter;
+    private final Thread thread;
+    private Publication lastPresentedPublication;
+    private final int firstFrame;
+    private volatile boolean isRunning;
+
+    AnimationEngine(Animation animation, PlaybackClock clock, int firstFrame)
+    {
+        this.animation = animation;
+        this.clock = clock;
+        this.firstFrame = firstFrame;
+        latestPublication = new AtomicReference<>();
+        isPresentationPending = new AtomicBoolean(false);
+        presenter = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                present();
+            }
+        };
+        thread = new Thread(this, "Animation engine");
+        thread.setDaemon(true);
+    }
+
+    void start()
+    {
+        isRunning = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the engine and waits for its thread to end. Snapshots that were
+     * published but not applied yet are discarded.
+     * <p>
+     * This must not be called while holding the lock of the {@link Animation}.
+     */
+    void stop()
+    {
+        isRunning = false;
+        LockSupport.unpark(thread);
+        try
+        {
+            thread.join();
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    boolean isRunning()
+    {
+        return isRunning;
+    }
+
+    @Override
+    public void run()
+    {
+        int lastFrame = firstFrame;
+        while (isRunning)
+        {
+            int frame = clock.getTargetFrame();
+            float fraction = clock.getFrameFraction();
+            int nextFrame = clock.getNextFrame();
+            if (frame != lastFrame)
+            {
+                lastFrame = frame;
+                animation.recordInput(frame - INPUT_LATENCY_IN_FRAMES);
+                publish(animation.createSnapshot(frame, nextFrame, fraction), clock.getDueTime());
+
+                if (!animation.isPlayableFrame(frame))
+                {
+                    break;
+                }
+                animation.prefetchFrames(frame, nextFrame);
+            }
+            else if (fraction > 0f)
+            {
+                publish(animation.createSnapshot(frame, nextFrame, fraction), clock.getDueTime());
+            }
+
+            LockSupport.parkNanos(clock.getNanosUntilNextUpdate());
+        }
+    }
+
+    private void publish(FrameSnapshot snapshot, long dueTime)
+    {
+        latestPublication.set(new Publication(snapshot, dueTime));
+
+        // NOTE(Eric): Only one presentation is queued at a time, the event
+        // dispatch thread always takes the latest snapshot.
+        if (!isPresentationPending.getAndSet(true))
+        {
+            SwingUtilities.invokeLater(presenter);
+        }
+    }
+
+    private void present()
+    {
+        isPresentationPending.set(false);
+        Publication publication = latestPublication.get();
+        // NOTE(Eric): A publication already presented would only measure the
+        // time since it was shown.
+        if (isRunning &&
+            publication != null &&
+            publication != lastPresentedPublication)
+        {
+            lastPresentedPublication = publication;
+            clock.framePresented(publication.dueTime);
+            animation.presentSnapshot(publication.snapshot);
+        }
+    }
+
+    /**
+     * A snapshot and the time its frame was due, published together.
+     */
+    private static final class Publication
+    {
+        private final FrameSnapshot snapshot;
+        private final long dueTime;
+
+        Publication(FrameSnapshot snapshot, long dueTime)
+        {
+            this.snapshot = snapshot;
+            this.dueTime = dueTime;
+        }
+
+    }
+
+}
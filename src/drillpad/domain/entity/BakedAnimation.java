@@ -0,0 +1,205 @@
+package drillpad.domain.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import drillpad.domain.event.AnimationBakeObserver;
+
+/**
+ * Holds the pose of every animated {@link Entity} at every frame of an
+ * {@link Animation}, computed ahead of time in a dense buffer.
+ * <p>
+ * The poses of an entity do not depend on the other entities, so each entity
+ * is baked by its own task on a {@link ForkJoinPool} using every core.
+ * Reading a {@link DeltaTrack} updates its checkpoints, so the bake works on
+ * copies of the tracks that no other thread uses, and each task only reads
+ * the slots of its own entity.
+ *
+ * @author Eric Perron
+ */
+final class BakedAnimation implements FrameProvider
+{
+    // NOTE(Eric): How many frames are baked between two checks for
+    // cancellation.
+    private static final int CANCELLATION_CHECK_INTERVAL = 1024;
+
+    private final Entity[] entities;
+    private final int frameCount;
+
+    // NOTE(Eric): poses[entity] holds the x, y and angle of the entity at each
+    // frame, one after the other. A NaN x means the entity has no pose at that
+    // frame.
+    private final float[][] poses;
+
+    private BakedAnimation(Entity[] entities, int frameCount)
+    {
+        this.entities = entities;
+        this.frameCount = frameCount;
+        poses = new float[entities.length][];
+    }
+
+    /**
+     * Computes the pose of every entity of the specified tracks at every
+     * frame. The poses recorded in real time take precedence over the
+     * keyframes.
+     * <p>
+     * This blocks until the bake is done or cancelled. The tracks must not be
+     * used by any other thread in the meantime.
+     *
+     * @param recorded   The poses recorded in real time.
+     * @param keyframed  The keyframes.
+     * @param frameCount The number of frames to bake.
+     * @param observer   The observer notified of the progress, which can also
+     *                   cancel the bake.
+     * @return The baked animation, or {@code null} if the bake was cancelled.
+     */
+    static BakedAnimation bake(DeltaTrack recorded, KeyframeTrack keyframed,
+                               int frameCount, AnimationBakeObserver observer)
+    {
+        List<Entity> bakedEntities = new ArrayList<>();
+        for (int slot = 0; slot < keyframed.getSlotCount(); ++slot)
+        {
+            bakedEntities.add(keyframed.getEntity(slot));
+        }
+        for (int slot = 0; slot < recorded.getSlotCount(); ++slot)
+        {
+            if (!bakedEntities.contains(recorded.getEntity(slot)))
+            {
+                bakedEntities.add(recorded.getEntity(slot));
+            }
+        }
+
+        BakedAnimation baked = new BakedAnimation(bakedEntities.toArray(new Entity[0]), frameCount);
+        ForkJoinPool pool = new ForkJoinPool();
+        try
+        {
+            pool.invoke(new BakeTask(baked, recorded, keyframed, observer,
+                                     new AtomicInteger(), 0, baked.entities.length));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        return (observer.isBakeCancelled() ? null : baked);
+    }
+
+    /**
+     * Computes the poses of one entity at every frame.
+     *
+     * @return {@code false} if the bake was cancelled.
+     */
+    private boolean bakeEntity(int index, DeltaTrack recorded, KeyframeTrack keyframed,
+                               AnimationBakeObserver observer)
+    {
+        Entity entity = entities[index];
+        int recordedSlot = recorded.getSlot(entity);
+        int keyframedSlot = keyframed.getSlot(entity);
+        float[] column = new float[frameCount * 3];
+        float[] pose = new float[3];
+        for (int frame = 0; frame < frameCount; ++frame)
+        {
+            if (frame % CANCELLATION_CHECK_INTERVAL == 0 &&
+                observer.isBakeCancelled())
+            {
+                return false;
+            }
+
+            if ((recordedSlot != -1 &&
+                 frame < recorded.getFrameCount() &&
+                 recorded.getPose(frame, recordedSlot, pose)) ||
+                (keyframedSlot != -1 &&
+                 keyframed.getPose(frame, keyframedSlot, pose)))
+            {
+                System.arraycopy(pose, 0, column, frame * 3, pose.length);
+            }
+            else
+            {
+                column[frame * 3] = Float.NaN;
+            }
+        }
+        poses[index] = column;
+
+        return true;
+    }
+
+    int getFrameCount()
+    {
+        return frameCount;
+    }
+
+    @Override
+    public FrameSnapshot getFrame(int frame)
+    {
+        Entity[] snapshotEntities = new Entity[entities.length];
+        float[] snapshotPoses = new float[entities.length * 3];
+        int poseCount = 0;
+        if (frame >= 0 &&
+            frame < frameCount)
+        {
+            for (int index = 0; index < entities.length; ++index)
+            {
+                if (!Float.isNaN(poses[index][frame * 3]))
+                {
+                    snapshotEntities[poseCount] = entities[index];
+                    System.arraycopy(poses[index], frame * 3, snapshotPoses, poseCount * 3, 3);
+                    ++poseCount;
+                }
+            }
+        }
+
+        return new FrameSnapshot(frame, snapshotEntities, snapshotPoses, poseCount);
+    }
+
+    /**
+     * Bakes a range of entities, splitting it in two until a single entity is
+     * left.
+     */
+    private static final class BakeTask extends RecursiveAction
+    {
+        private final BakedAnimation baked;
+        private final DeltaTrack recorded;
+        private final KeyframeTrack keyframed;
+        private final AnimationBakeObserver observer;
+        private final AtomicInteger bakedEntityCount;
+        private final int from;
+        private final int to;
+
+        BakeTask(BakedAnimation baked, DeltaTrack recorded, KeyframeTrack keyframed,
+                 AnimationBakeObserver observer, AtomicInteger bakedEntityCount,
+                 int from, int to)
+        {
+            this.baked = baked;
+            this.recorded = recorded;
+            this.keyframed = keyframed;
+            this.observer = observer;
+            this.bakedEntityCount = bakedEntityCount;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from > 1)
+            {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BakeTask(baked, recorded, keyframed, observer,
+                                       bakedEntityCount, from, middle),
+                          new BakeTask(baked, recorded, keyframed, observer,
+                                       bakedEntityCount, middle, to));
+            }
+            else if (to - from == 1 &&
+                     baked.bakeEntity(from, recorded, keyframed, observer))
+            {
+                observer.bakeProgressChanged(bakedEntityCount.incrementAndGet(),
+                                             baked.entities.length);
+            }
+        }
+
+    }
+
+}
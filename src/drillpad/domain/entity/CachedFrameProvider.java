@@ -0,0 +1,112 @@
+package drillpad.domain.entity;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the frames most recently materialized by another
+ * {@link FrameProvider} so playback, seeking and scrubbing around the
+ * playhead do not decode the same frames again.
+ * <p>
+ * The cache holds at most a fixed number of frames and discards the least
+ * recently used one first. It is not thread-safe, the {@link Animation} only
+ * uses it while holding its own lock.
+ *
+ * @author Eric Perron
+ */
+final class CachedFrameProvider implements FrameProvider
+{
+    private final FrameProvider source;
+    private final LinkedHashMap<Integer, FrameSnapshot> cache;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param source   The provider that materializes the frames missing from
+     *                 the cache.
+     * @param capacity The maximum number of frames kept.
+     */
+    CachedFrameProvider(FrameProvider source, final int capacity)
+    {
+        this.source = source;
+
+        // NOTE(Eric): In access order, the eldest entry is the least recently
+        // used one.
+        cache = new LinkedHashMap<Integer, FrameSnapshot>(capacity * 4 / 3 + 1, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, FrameSnapshot> eldest)
+            {
+                return (size() > capacity);
+            }
+        };
+    }
+
+    @Override
+    public FrameSnapshot getFrame(int frame)
+    {
+        FrameSnapshot snapshot = cache.get(frame);
+        if (snapshot == null)
+        {
+            snapshot = source.getFrame(frame);
+            cache.put(frame, snapshot);
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Materializes the frames that follow the specified one in the playback
+     * direction, so they are ready when playback reaches them.
+     *
+     * @param frame     The frame after which the frames are prefetched.
+     * @param direction {@code 1} when playing forward, {@code -1} when
+     *                  playing backward.
+     * @param count     The number of frames to prefetch.
+     * @param end       The frame after the last frame of the animation. No
+     *                  frame is prefetched past it or before frame 0.
+     */
+    void prefetch(int frame, int direction, int count, int end)
+    {
+        for (int index = 1; index <= count; ++index)
+        {
+            int prefetchedFrame = frame + index * direction;
+            if (prefetchedFrame < 0 ||
+                prefetchedFrame >= end)
+            {
+                break;
+            }
+
+            // NOTE(Eric): Unlike get, containsKey does not count as a use, so
+            // the frames already cached keep their place.
+            if (!cache.containsKey(prefetchedFrame))
+            {
+                cache.put(prefetchedFrame, source.getFrame(prefetchedFrame));
+            }
+        }
+    }
+
+    /**
+     * Discards the cached frames at or after the specified frame.
+     *
+     * @param frame The first frame that changed.
+     */
+    void invalidate(int frame)
+    {
+        Iterator<Integer> iterator = cache.keySet().iterator();
+        while (iterator.hasNext())
+        {
+            if (iterator.next() >= frame)
+            {
+                iterator.remove();
+            }
+        }
+    }
+
+    void clear()
+    {
+        cache.clear();
+    }
+
+}
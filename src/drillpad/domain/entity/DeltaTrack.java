@@ -0,0 +1,858 @@
+package drillpad.domain.entity;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import drillpad.general.utility.MathUtilities;
+
+/**
+ * Stores the poses recorded in real time as a delta-encoded track.
+ * <p>
+ * A frame only holds the entities whose pose changed in that frame. The pose
+ * of an {@link Entity} between two recorded poses is interpolated linearly,
+ * and the last recorded pose is held until the end of the animation, so an
+ * entity that stops moving does not disappear from the later frames. When an
+ * entity starts moving again after a pause, the last frame of the pause is
+ * recorded too so the pause is not turned into a slow move.
+ * <p>
+ * Since the poses are interpolated, the recorded poses that lie close enough
+ * to the line between their neighbours can be removed by {@link #simplify}.
+ * <p>
+ * A range of frames can be cleared with {@link #clearFrames} so the
+ * keyframes of the {@link Animation} are used there instead, while the poses
+ * recorded before and after it are kept. Frames can also be inserted and
+ * deleted, which moves the recorded poses that follow.
+ * <p>
+ * Every {@link #CHECKPOINT_INTERVAL} frames, a checkpoint remembers which
+ * recorded pose of each entity is in effect. Finding the pose at any frame
+ * starts from the nearest checkpoint, so it never looks at more than
+ * {@code CHECKPOINT_INTERVAL} recorded poses. Each entity also remembers
+ * where its last search ended, so finding the pose at the next or the
+ * previous frame only looks at a few recorded poses, and playing backward
+ * costs the same as playing forward.
+ * <p>
+ * Long recordings can store their poses on 16 bits per value with a
+ * {@link PoseQuantizer}, see {@link #setQuantizer}.
+ *
+ * @author Eric Perron
+ */
+class DeltaTrack implements Serializable
+{
+    static final int CHECKPOINT_INTERVAL = 32;
+    private static final int MAX_CURSOR_STEPS = 4;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final List<Entity> slotEntities;
+    private transient SlotIndex slots;
+    private transient int[][] sampleFrames;
+    private transient PoseColumns[] poses;
+    private transient int[] sampleCounts;
+    private int frameCount;
+    private PoseQuantizer quantizer;
+
+    // NOTE(Eric): gaps[slot] are the frames cleared for the keyframes, where
+    // the entity has no recorded pose.
+    private FrameRanges[] gaps;
+
+    // NOTE(Eric): checkpoints[slot][c] is the index of the sample in effect at
+    // frame c * CHECKPOINT_INTERVAL, or -1 if there is none. Only the first
+    // validCheckpointCounts[slot] checkpoints are up to date, the others are
+    // rebuilt on demand after a change.
+    private transient int[][] checkpoints;
+    private transient int[] validCheckpointCounts;
+
+    // NOTE(Eric): cursors[slot] is the sample found by the last search.
+    // Playback and scrubbing move a frame at a time in either direction, so
+    // the next search usually ends within a sample or two of it.
+    private transient int[] cursors;
+
+    DeltaTrack()
+    {
+        slotEntities = new ArrayList<>();
+        slots = new SlotIndex(slotEntities);
+        frameCount = 0;
+        quantizer = null;
+        gaps = new FrameRanges[0];
+        initializeColumns(0);
+    }
+
+    private DeltaTrack(DeltaTrack other)
+    {
+        slotEntities = new ArrayList<>(other.slotEntities);
+        slots = new SlotIndex(slotEntities);
+        frameCount = other.frameCount;
+        quantizer = other.quantizer;
+        gaps = new FrameRanges[slotEntities.size()];
+        initializeColumns(slotEntities.size());
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            gaps[slot] = other.gaps[slot].copy();
+            int count = other.sampleCounts[slot];
+            int capacity = Math.max(INITIAL_CAPACITY, count);
+            sampleFrames[slot] = Arrays.copyOf(other.sampleFrames[slot], capacity);
+            poses[slot] = other.poses[slot].copy(capacity);
+            sampleCounts[slot] = count;
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException
+    {
+        out.defaultWriteObject();
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            out.writeInt(sampleCounts[slot]);
+            for (int i = 0; i < sampleCounts[slot]; ++i)
+            {
+                out.writeInt(sampleFrames[slot][i]);
+                poses[slot].write(out, i);
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        slots = new SlotIndex(slotEntities);
+        initializeColumns(slotEntities.size());
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            int count = in.readInt();
+            int capacity = Math.max(INITIAL_CAPACITY, count);
+            sampleFrames[slot] = new int[capacity];
+            poses[slot] = PoseColumns.create(quantizer, capacity);
+            for (int i = 0; i < count; ++i)
+            {
+                sampleFrames[slot][i] = in.readInt();
+                poses[slot].read(in, i);
+            }
+            sampleCounts[slot] = count;
+        }
+    }
+
+    /**
+     * Returns a copy of this track that does not change when this one does.
+     * The entities themselves are shared.
+     * <p>
+     * Reading a track updates its checkpoints, so a copy is also what lets
+     * another thread read the poses while this track keeps being used.
+     *
+     * @return The copy.
+     */
+    DeltaTrack copy()
+    {
+        return new DeltaTrack(this);
+    }
+
+    private void initializeColumns(int slotCount)
+    {
+        sampleFrames = new int[slotCount][];
+        poses = new PoseColumns[slotCount];
+        sampleCounts = new int[slotCount];
+        checkpoints = new int[slotCount][];
+        validCheckpointCounts = new int[slotCount];
+        cursors = new int[slotCount];
+        for (int slot = 0; slot < slotCount; ++slot)
+        {
+            checkpoints[slot] = new int[0];
+        }
+    }
+
+    private int addSlot(Entity entity)
+    {
+        int slot = slots.get(entity);
+        if (slot == -1)
+        {
+            slot = slotEntities.size();
+            slotEntities.add(entity);
+            slots.put(entity, slot);
+
+            sampleFrames = Arrays.copyOf(sampleFrames, slot + 1);
+            poses = Arrays.copyOf(poses, slot + 1);
+            sampleCounts = Arrays.copyOf(sampleCounts, slot + 1);
+            checkpoints = Arrays.copyOf(checkpoints, slot + 1);
+            validCheckpointCounts = Arrays.copyOf(validCheckpointCounts, slot + 1);
+            cursors = Arrays.copyOf(cursors, slot + 1);
+            gaps = Arrays.copyOf(gaps, slot + 1);
+            sampleFrames[slot] = new int[INITIAL_CAPACITY];
+            poses[slot] = PoseColumns.create(quantizer, INITIAL_CAPACITY);
+            checkpoints[slot] = new int[0];
+            gaps[slot] = new FrameRanges();
+        }
+
+        return slot;
+    }
+
+    /**
+     * Returns the slot of the specified {@link Entity} or {@code -1} if none of
+     * its poses were ever recorded.
+     *
+     * @param entity The {@code Entity} whose slot is requested.
+     * @return The slot of the {@code Entity} or {@code -1}.
+     */
+    int getSlot(Entity entity)
+    {
+        return slots.get(entity);
+    }
+
+    int getSlotCount()
+    {
+        return slotEntities.size();
+    }
+
+    Entity getEntity(int slot)
+    {
+        return slotEntities.get(slot);
+    }
+
+    int getFrameCount()
+    {
+        return frameCount;
+    }
+
+    boolean isQuantized()
+    {
+        return (quantizer != null);
+    }
+
+    /**
+     * Changes how the poses are stored. The poses already recorded are
+     * converted, which loses precision when they become quantized.
+     *
+     * @param value The quantizer used to store the poses, or {@code null} to
+     *              store them at full precision.
+     */
+    void setQuantizer(PoseQuantizer value)
+    {
+        quantizer = value;
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            PoseColumns old = poses[slot];
+            poses[slot] = PoseColumns.create(quantizer, old.getCapacity());
+            for (int index = 0; index < sampleCounts[slot]; ++index)
+            {
+                poses[slot].set(index, old.getX(index), old.getY(index), old.getAngle(index));
+            }
+        }
+    }
+
+    /**
+     * Grows or shrinks the number of frames. Every pose recorded past the new
+     * count is discarded.
+     *
+     * @param value The new number of frames.
+     */
+    void setFrameCount(int value)
+    {
+        if (value < frameCount)
+        {
+            for (int slot = 0; slot < slotEntities.size(); ++slot)
+            {
+                pinFrame(slot, value - 1);
+                sampleCounts[slot] = (value == 0) ? 0 : findSample(slot, value - 1) + 1;
+                invalidateCheckpoints(slot, value);
+                gaps[slot].truncate(value);
+            }
+        }
+
+        frameCount = value;
+    }
+
+    /**
+     * Records the current pose of the specified {@link Entity} in the
+     * specified frame. Nothing is stored if the entity already has that pose
+     * at this frame.
+     * <p>
+     * Recording over an existing part of the track only replaces the pose at
+     * the specified frame, the poses of the other frames are kept.
+     *
+     * @param frame  The frame in which the pose is recorded.
+     * @param entity The {@code Entity} whose pose is recorded.
+     */
+    void record(int frame, Entity entity)
+    {
+        record(frame, entity,
+               entity.getPosition().x,
+               entity.getPosition().y,
+               entity.getAngleInRadians());
+    }
+
+    /**
+     * Records the specified pose of the specified {@link Entity} in the
+     * specified frame, without reading the current pose of the
+     * {@code Entity}.
+     *
+     * @param frame  The frame in which the pose is recorded.
+     * @param entity The {@code Entity} whose pose is recorded.
+     * @param x      The x coordinate of the pose.
+     * @param y      The y coordinate of the pose.
+     * @param angle  The angle of the pose, in radians.
+     * @see #record(int, drillpad.domain.entity.Entity)
+     */
+    void record(int frame, Entity entity, float x, float y, float angle)
+    {
+        int slot = addSlot(entity);
+
+        // NOTE(Eric): Compare the pose as it would be stored, otherwise an
+        // entity standing still would be recorded again in every frame.
+        if (quantizer != null)
+        {
+            x = quantizer.roundX(x);
+            y = quantizer.roundY(y);
+            angle = quantizer.roundAngle(angle);
+        }
+
+        float[] pose = new float[3];
+        if (getPose(frame, slot, pose) &&
+            pose[0] == x &&
+            pose[1] == y &&
+            pose[2] == angle)
+        {
+            return;
+        }
+
+        // NOTE(Eric): Pin the poses of the surrounding frames so changing this
+        // frame does not change the interpolation on either side of it.
+        pinFrame(slot, frame - 1);
+        pinFrame(slot, frame + 1);
+
+        int index = findSample(slot, frame);
+        if (index >= 0 &&
+            sampleFrames[slot][index] == frame)
+        {
+            poses[slot].set(index, x, y, angle);
+        }
+        else
+        {
+            insertSample(slot, index + 1, frame, x, y, angle);
+        }
+        gaps[slot].remove(frame);
+    }
+
+    /**
+     * Clears the frames from {@code from} inclusively to {@code to}
+     * exclusively, so no entity has a recorded pose there. The poses recorded
+     * before and after the range are kept. Recording in a cleared frame makes
+     * it part of the track again.
+     *
+     * @param from The first frame cleared.
+     * @param to   The frame after the last frame cleared.
+     */
+    void clearFrames(int from, int to)
+    {
+        if (from >= to)
+        {
+            return;
+        }
+
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            pinFrame(slot, from - 1);
+            pinFrame(slot, to);
+            removeSamples(slot, findFirstSample(slot, from), findFirstSample(slot, to));
+            invalidateCheckpoints(slot, from);
+            gaps[slot].add(from, to);
+        }
+    }
+
+    /**
+     * Inserts frames at the specified frame. Every entity holds its pose of
+     * the previous frame during the new frames, and the poses recorded at or
+     * after that frame are moved later. Nothing changes past the last frame.
+     *
+     * @param frame The frame at which the new frames start.
+     * @param count The number of frames inserted.
+     */
+    void insertFrames(int frame, int count)
+    {
+        if (count <= 0 ||
+            frame >= frameCount)
+        {
+            return;
+        }
+
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            pinFrame(slot, frame - 1);
+            pinFrame(slot, frame);
+
+            int first = findFirstSample(slot, frame);
+            int[] frames = sampleFrames[slot];
+            for (int index = first; index < sampleCounts[slot]; ++index)
+            {
+                frames[index] += count;
+            }
+
+            // NOTE(Eric): Without a sample at the end of the new frames, the
+            // entity would slowly move through them instead of waiting.
+            if (first > 0 &&
+                first < sampleCounts[slot])
+            {
+                PoseColumns columns = poses[slot];
+                insertSample(slot, first, frame + count - 1,
+                             columns.getX(first - 1),
+                             columns.getY(first - 1),
+                             columns.getAngle(first - 1));
+            }
+            invalidateCheckpoints(slot, frame);
+            gaps[slot].insert(frame, count);
+        }
+
+        frameCount += count;
+    }
+
+    /**
+     * Deletes the frames from {@code from} inclusively to {@code to}
+     * exclusively, and moves the poses recorded after them earlier to fill the
+     * gap.
+     *
+     * @param from The first frame deleted.
+     * @param to   The frame after the last frame deleted.
+     */
+    void deleteFrames(int from, int to)
+    {
+        to = Math.min(to, frameCount);
+        if (from >= to)
+        {
+            return;
+        }
+
+        int count = to - from;
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            pinFrame(slot, from - 1);
+            pinFrame(slot, to);
+
+            int first = findFirstSample(slot, from);
+            removeSamples(slot, first, findFirstSample(slot, to));
+            int[] frames = sampleFrames[slot];
+            for (int index = first; index < sampleCounts[slot]; ++index)
+            {
+                frames[index] -= count;
+            }
+            invalidateCheckpoints(slot, from);
+            gaps[slot].delete(from, to);
+        }
+
+        frameCount -= count;
+    }
+
+    /**
+     * Makes sure the pose at the specified frame is stored in a sample
+     * instead of being interpolated or held, without changing it.
+     */
+    private void pinFrame(int slot, int frame)
+    {
+        if (frame < 0 ||
+            frame >= frameCount)
+        {
+            return;
+        }
+
+        int index = findSample(slot, frame);
+        if (index >= 0 &&
+            sampleFrames[slot][index] != frame)
+        {
+            float[] pose = new float[3];
+            getSamplePose(frame, slot, pose);
+            insertSample(slot, index + 1, frame, pose[0], pose[1], pose[2]);
+        }
+    }
+
+    /**
+     * Removes the recorded poses that can be interpolated back from the
+     * remaining ones, using the Ramer-Douglas-Peucker algorithm.
+     * <p>
+     * A pose is kept if removing it would move the entity by more than
+     * {@code distanceTolerance} or turn it by more than
+     * {@code angleTolerance} at that frame.
+     *
+     * @param distanceTolerance The maximum distance error. It must be greater
+     *                          than 0.
+     * @param angleTolerance    The maximum angle error, in radians. It must be
+     *                          greater than 0.
+     */
+    void simplify(float distanceTolerance, float angleTolerance)
+    {
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            int count = sampleCounts[slot];
+            if (count < 3)
+            {
+                continue;
+            }
+
+            // NOTE(Eric): The poses on either side of a cleared range are
+            // kept, they are where the keyframes take over and hand back.
+            boolean[] isKept = new boolean[count];
+            isKept[0] = true;
+            isKept[count - 1] = true;
+            for (int index = 1; index < count - 1; ++index)
+            {
+                isKept[index] = gaps[slot].isNextTo(sampleFrames[slot][index]);
+            }
+
+            // NOTE(Eric): The ranges left to simplify are kept on a stack
+            // instead of using recursion, long recordings would otherwise
+            // overflow the call stack.
+            int[] ranges = new int[count * 2];
+            int top = 0;
+            int previous = 0;
+            for (int index = 1; index < count; ++index)
+            {
+                if (isKept[index])
+                {
+                    ranges[top++] = previous;
+                    ranges[top++] = index;
+                    previous = index;
+                }
+            }
+            while (top > 0)
+            {
+                int last = ranges[--top];
+                int first = ranges[--top];
+
+                int farthest = -1;
+                float maxError = 1f;
+                for (int index = first + 1; index < last; ++index)
+                {
+                    float error = getRemovalError(slot, first, last, index,
+                                                  distanceTolerance, angleTolerance);
+                    if (error > maxError)
+                    {
+                        maxError = error;
+                        farthest = index;
+                    }
+                }
+
+                if (farthest != -1)
+                {
+                    isKept[farthest] = true;
+                    ranges[top++] = first;
+                    ranges[top++] = farthest;
+                    ranges[top++] = farthest;
+                    ranges[top++] = last;
+                }
+            }
+
+            int keptCount = 0;
+            for (int index = 0; index < count; ++index)
+            {
+                if (isKept[index])
+                {
+                    sampleFrames[slot][keptCount] = sampleFrames[slot][index];
+                    poses[slot].move(index, keptCount, 1);
+                    ++keptCount;
+                }
+            }
+            sampleCounts[slot] = keptCount;
+            validCheckpointCounts[slot] = 0;
+        }
+    }
+
+    /**
+     * Moves every recorded pose to the frame at the same time in a track
+     * played at another frame rate. When several poses of an entity end up in
+     * the same frame, the latest one is kept. Poses rounded past the end of
+     * the track are moved to its last frame.
+     *
+     * @param oldFramesPerSecond The frame rate the track was recorded at.
+     * @param newFramesPerSecond The new frame rate.
+     */
+    void resample(int oldFramesPerSecond, int newFramesPerSecond)
+    {
+        // NOTE(Eric): A track that has frames keeps at least one.
+        int newFrameCount = resampleFrame(frameCount, oldFramesPerSecond, newFramesPerSecond);
+        if (frameCount > 0)
+        {
+            newFrameCount = Math.max(newFrameCount, 1);
+        }
+
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            int keptCount = 0;
+            for (int index = 0; index < sampleCounts[slot]; ++index)
+            {
+                int frame = Math.min(resampleFrame(sampleFrames[slot][index],
+                                                   oldFramesPerSecond,
+                                                   newFramesPerSecond),
+                                     newFrameCount - 1);
+                if (keptCount > 0 &&
+                    sampleFrames[slot][keptCount - 1] == frame)
+                {
+                    --keptCount;
+                }
+                sampleFrames[slot][keptCount] = frame;
+                poses[slot].move(index, keptCount, 1);
+                ++keptCount;
+            }
+            sampleCounts[slot] = keptCount;
+            validCheckpointCounts[slot] = 0;
+            gaps[slot].resample(oldFramesPerSecond, newFramesPerSecond);
+        }
+        frameCount = newFrameCount;
+    }
+
+    /**
+     * Returns the frame at the same time as the specified frame in a track
+     * played at another frame rate.
+     *
+     * @param frame              The frame to convert.
+     * @param oldFramesPerSecond The frame rate of the specified frame.
+     * @param newFramesPerSecond The frame rate of the returned frame.
+     * @return The closest frame at the new frame rate.
+     */
+    static int resampleFrame(int frame, int oldFramesPerSecond, int newFramesPerSecond)
+    {
+        return (int) Math.round((double) frame * newFramesPerSecond / oldFramesPerSecond);
+    }
+
+    /**
+     * Returns the error made at the sample {@code index} if every sample
+     * between {@code first} and {@code last} was removed, relative to the
+     * tolerances. An error greater than 1 is over the tolerance.
+     */
+    private float getRemovalError(int slot, int first, int last, int index,
+                                  float distanceTolerance, float angleTolerance)
+    {
+        int[] frames = sampleFrames[slot];
+        PoseColumns columns = poses[slot];
+        float amount = (float) (frames[index] - frames[first]) /
+                       (float) (frames[last] - frames[first]);
+        float dx = MathUtilities.lerp(columns.getX(first), columns.getX(last), amount) - columns.getX(index);
+        float dy = MathUtilities.lerp(columns.getY(first), columns.getY(last), amount) - columns.getY(index);
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        float angle = interpolateAngle(columns.getAngle(first), columns.getAngle(last), amount);
+        float angleError = Math.abs(MathUtilities.wrapAngle(angle - columns.getAngle(index)));
+
+        return Math.max(distance / distanceTolerance, angleError / angleTolerance);
+    }
+
+    private static float interpolateAngle(float angle1, float angle2, float amount)
+    {
+        return angle1 + MathUtilities.wrapAngle(angle2 - angle1) * amount;
+    }
+
+    /**
+     * Computes the pose of the entity in the specified slot at the specified
+     * frame.
+     *
+     * @param frame The frame to compute.
+     * @param slot  The slot of the entity.
+     * @param pose  Receives the x, y and angle of the entity.
+     * @return {@code false} if no pose of the entity was recorded at or before
+     *         this frame, or if the frame was cleared.
+     */
+    boolean getPose(int frame, int slot, float[] pose)
+    {
+        return (!gaps[slot].contains(frame) &&
+                getSamplePose(frame, slot, pose));
+    }
+
+    /**
+     * Computes the pose of the entity in the specified slot at the specified
+     * frame from the samples, even in a cleared frame.
+     */
+    private boolean getSamplePose(int frame, int slot, float[] pose)
+    {
+        int index = findSample(slot, frame);
+        if (index < 0)
+        {
+            return false;
+        }
+
+        PoseColumns columns = poses[slot];
+        int next = index + 1;
+        if (next < sampleCounts[slot] &&
+            sampleFrames[slot][index] != frame)
+        {
+            float amount = (float) (frame - sampleFrames[slot][index]) /
+                           (float) (sampleFrames[slot][next] - sampleFrames[slot][index]);
+            pose[0] = MathUtilities.lerp(columns.getX(index), columns.getX(next), amount);
+            pose[1] = MathUtilities.lerp(columns.getY(index), columns.getY(next), amount);
+            pose[2] = interpolateAngle(columns.getAngle(index), columns.getAngle(next), amount);
+        }
+        else
+        {
+            pose[0] = columns.getX(index);
+            pose[1] = columns.getY(index);
+            pose[2] = columns.getAngle(index);
+        }
+        return true;
+    }
+
+    /**
+     * Moves every recorded {@link Entity} to its pose at the specified frame.
+     *
+     * @param frame The frame to apply.
+     */
+    void applyFrame(int frame)
+    {
+        float[] pose = new float[3];
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            if (getPose(frame, slot, pose))
+            {
+                Entity entity = slotEntities.get(slot);
+                entity.setPosition(pose[0], pose[1]);
+                entity.setAngleInRadians(pose[2]);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the sample in effect at the specified frame, which
+     * is the last sample recorded at or before that frame.
+     */
+    private int findSample(int slot, int frame)
+    {
+        int index = findSampleFromCursor(slot, frame);
+        if (index == Integer.MIN_VALUE)
+        {
+            int checkpoint = frame / CHECKPOINT_INTERVAL;
+            updateCheckpoints(slot, checkpoint);
+
+            index = checkpoints[slot][checkpoint];
+            int count = sampleCounts[slot];
+            int[] frames = sampleFrames[slot];
+            while (index + 1 < count &&
+                   frames[index + 1] <= frame)
+            {
+                ++index;
+            }
+        }
+
+        cursors[slot] = index;
+        return index;
+    }
+
+    /**
+     * Looks for the sample in effect at the specified frame a few samples
+     * around the one found by the last search, forward or backward.
+     *
+     * @return The index of the sample, or {@link Integer#MIN_VALUE} if it is
+     *         too far from the last one.
+     */
+    private int findSampleFromCursor(int slot, int frame)
+    {
+        // NOTE(Eric): The samples are sorted, so any sample is a valid
+        // starting point even after samples were inserted or removed.
+        int count = sampleCounts[slot];
+        int[] frames = sampleFrames[slot];
+        int index = Math.min(cursors[slot], count - 1);
+        if (index < 0)
+        {
+            return Integer.MIN_VALUE;
+        }
+
+        if (frames[index] <= frame)
+        {
+            for (int step = 0; step < MAX_CURSOR_STEPS; ++step)
+            {
+                if (index + 1 == count ||
+                    frames[index + 1] > frame)
+                {
+                    return index;
+                }
+                ++index;
+            }
+        }
+        else
+        {
+            for (int step = 0; step < MAX_CURSOR_STEPS; ++step)
+            {
+                --index;
+                if (index < 0 ||
+                    frames[index] <= frame)
+                {
+                    return index;
+                }
+            }
+        }
+
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Returns the index of the first sample recorded at or after the
+     * specified frame, or the number of samples if there are none.
+     */
+    private int findFirstSample(int slot, int frame)
+    {
+        int index = Arrays.binarySearch(sampleFrames[slot], 0, sampleCounts[slot], frame);
+        return (index >= 0) ? index : -index - 1;
+    }
+
+    private void updateCheckpoints(int slot, int checkpoint)
+    {
+        int validCount = validCheckpointCounts[slot];
+        if (checkpoint < validCount)
+        {
+            return;
+        }
+
+        if (checkpoint >= checkpoints[slot].length)
+        {
+            checkpoints[slot] = Arrays.copyOf(checkpoints[slot],
+                                              Math.max(checkpoint + 1,
+                                                       checkpoints[slot].length * 2));
+        }
+
+        int index = (validCount == 0) ? -1 : checkpoints[slot][validCount - 1];
+        int count = sampleCounts[slot];
+        int[] frames = sampleFrames[slot];
+        for (int c = validCount; c <= checkpoint; ++c)
+        {
+            int checkpointFrame = c * CHECKPOINT_INTERVAL;
+            while (index + 1 < count &&
+                   frames[index + 1] <= checkpointFrame)
+            {
+                ++index;
+            }
+            checkpoints[slot][c] = index;
+        }
+        validCheckpointCounts[slot] = checkpoint + 1;
+    }
+
+    private void invalidateCheckpoints(int slot, int frame)
+    {
+        // NOTE(Eric): A change at a given frame affects every checkpoint at or
+        // after that frame.
+        int firstAffected = (frame + CHECKPOINT_INTERVAL - 1) / CHECKPOINT_INTERVAL;
+        validCheckpointCounts[slot] = Math.min(validCheckpointCounts[slot], firstAffected);
+    }
+
+    private void insertSample(int slot, int index, int frame,
+                              float x, float y, float angle)
+    {
+        int count = sampleCounts[slot];
+        if (count == sampleFrames[slot].length)
+        {
+            int capacity = count * 2;
+            sampleFrames[slot] = Arrays.copyOf(sampleFrames[slot], capacity);
+            poses[slot].grow(capacity);
+        }
+
+        int moved = count - index;
+        System.arraycopy(sampleFrames[slot], index, sampleFrames[slot], index + 1, moved);
+        poses[slot].move(index, index + 1, moved);
+
+        sampleFrames[slot][index] = frame;
+        poses[slot].set(index, x, y, angle);
+        sampleCounts[slot] = count + 1;
+        invalidateCheckpoints(slot, frame);
+    }
+
+    private void removeSamples(int slot, int from, int to)
+    {
+        int moved = sampleCounts[slot] - to;
+        System.arraycopy(sampleFrames[slot], to, sampleFrames[slot], from, moved);
+        poses[slot].move(to, from, moved);
+        sampleCounts[slot] -= to - from;
+    }
+
+}
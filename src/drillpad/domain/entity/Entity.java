@@ -1,7 +1,8 @@
 package drillpad.domain.entity;
 
+import java.awt.FontMetrics;
 import java.awt.Graphics2D;
-import java.awt.geom.AffineTransform;
+import java.awt.Rectangle;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.io.Serializable;
@@ -14,7 +15,12 @@ import drillpad.general.math.Vector2;
  */
 public class Entity implements Serializable
 {
+    // NOTE(Eric): Covers the selection outline drawn one pixel around the
+    // entity and the truncation of its position to whole pixels.
+    private static final int DRAWING_MARGIN = 3;
+
     protected EntityType entityType;
+    private int id;
     private Point2D.Float position;
     private float angleInRadians;
     private boolean isSelected;
@@ -35,6 +41,7 @@ public class Entity implements Serializable
     Entity(EntityType entityType, Point2D.Float position)
     {
         this.entityType = entityType;
+        this.id = EntityRegistry.NO_ID;
         this.position = position;
         this.angleInRadians = 0f;
         this.isSelected = false;
@@ -99,29 +106,57 @@ public class Entity implements Serializable
     // principe de la séparation du UI et du domain, mais bon on a pas eu de
     // commentaires des correcteurs à ce sujet.
     public void draw(Graphics2D g2d)
+    {
+        draw(g2d, position.x, position.y, angleInRadians);
+    }
+
+    /**
+     * Draws this {@code Entity} at the specified pose instead of its current
+     * one. This is used to draw the recorded poses of an animation without
+     * moving the {@code Entity}.
+     *
+     * @param g2d            The {@link Graphics2D} to draw on.
+     * @param x              The x coordinate of the center of the entity.
+     * @param y              The y coordinate of the center of the entity.
+     * @param angleInRadians The angle of the entity.
+     */
+    void draw(Graphics2D g2d, float x, float y, float angleInRadians)
     {
         if (entityType.hasImage())
         {
-            AffineTransform previousTransform = g2d.getTransform();
-            g2d.rotate(angleInRadians, position.getX(), position.getY());
-            g2d.drawImage(entityType.getImage(),
-                          (int) position.getX() - getWidth() / 2,
-                          (int) position.getY() - getHeight() / 2,
-                          getWidth(),
-                          getHeight(),
-                          null);
-            g2d.setTransform(previousTransform);
+            entityType.getSpriteCache().draw(g2d, x, y, angleInRadians);
         }
         else
         {
             g2d.setColor(entityType.getColor());
-            g2d.fillOval((int) position.getX() - entityType.getRadius(),
-                         (int) position.getY() - entityType.getRadius(),
+            g2d.fillOval((int) x - entityType.getRadius(),
+                         (int) y - entityType.getRadius(),
                          entityType.getRadius() * 2,
                          entityType.getRadius() * 2);
         }
     }
 
+    /**
+     * Returns the area that {@link #draw(Graphics2D)} paints, whatever the
+     * angle of this {@code Entity}, including its selection outline.
+     *
+     * @param fontMetrics The metrics of the font of the {@link Graphics2D}
+     *                    this {@code Entity} is drawn on.
+     * @return The bounds, in playing field coordinates.
+     */
+    public Rectangle getDrawingBounds(FontMetrics fontMetrics)
+    {
+        double radius = entityType.hasImage() ?
+                        Math.hypot(getWidth(), getHeight()) / 2 :
+                        entityType.getRadius();
+        int extent = (int) Math.ceil(radius) + DRAWING_MARGIN;
+
+        return new Rectangle((int) position.x - extent,
+                             (int) position.y - extent,
+                             extent * 2,
+                             extent * 2);
+    }
+
     public void rotate(Point2D.Float previousMousePosition,
                        Point2D.Float currentMousePosition)
     {
@@ -170,6 +205,18 @@ public class Entity implements Serializable
         }
     }
 
+    /**
+     * Returns the ID of this {@code Entity} in the {@link EntityRegistry} of
+     * its {@link Strategy}.
+     *
+     * @return The ID, or {@link EntityRegistry#NO_ID} if this
+     *         {@code Entity} was never registered.
+     */
+    int getId()
+    {
+        return id;
+    }
+
     public float getAngleInRadians()
     {
         return angleInRadians;
@@ -185,8 +232,19 @@ public class Entity implements Serializable
         position = value;
     }
 
+    void setPosition(float x, float y)
+    {
+        position.x = x;
+        position.y = y;
+    }
+
     void setAngleInRadians(float value)
     {
         angleInRadians = value;
     }
+
+    void setId(int value)
+    {
+        id = value;
+    }
 }
@@ -0,0 +1,95 @@
+package drillpad.domain.entity;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Gives every {@link Entity} of a {@link Strategy} a stable integer ID and
+ * finds an {@code Entity} from its ID in constant time.
+ * <p>
+ * The IDs are handed out in order starting at 0 and are never reused, so the
+ * poses an {@link Animation} recorded for a removed {@code Entity} can never
+ * be attached to another one. The IDs are saved with the entities, so unlike
+ * their identity, they survive saving and copying the strategy.
+ *
+ * @author Eric Perron
+ */
+final class EntityRegistry implements Serializable
+{
+    static final int NO_ID = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Entity[] entities;
+    private int idCount;
+
+    EntityRegistry()
+    {
+        entities = new Entity[INITIAL_CAPACITY];
+        idCount = 0;
+    }
+
+    /**
+     * Gives the next ID to the specified {@link Entity}. An {@code Entity}
+     * that already has an ID keeps it.
+     *
+     * @param entity The {@code Entity} to register.
+     * @return The ID of the {@code Entity}.
+     */
+    int register(Entity entity)
+    {
+        if (entity.getId() != NO_ID)
+        {
+            return entity.getId();
+        }
+
+        if (idCount == entities.length)
+        {
+            entities = Arrays.copyOf(entities, idCount * 2);
+        }
+        entities[idCount] = entity;
+        entity.setId(idCount);
+
+        return idCount++;
+    }
+
+    /**
+     * Forgets the specified {@link Entity}. Its ID is not given to any other
+     * {@code Entity}.
+     *
+     * @param entity The {@code Entity} removed from the strategy.
+     */
+    void unregister(Entity entity)
+    {
+        int id = entity.getId();
+        if (id >= 0 &&
+            id < idCount &&
+            entities[id] == entity)
+        {
+            entities[id] = null;
+        }
+    }
+
+    /**
+     * Returns the {@link Entity} with the specified ID.
+     *
+     * @param id The ID of the {@code Entity}.
+     * @return The {@code Entity}, or {@code null} if there is none with this
+     *         ID or if it was removed.
+     */
+    Entity get(int id)
+    {
+        return (id >= 0 && id < idCount) ? entities[id] : null;
+    }
+
+    /**
+     * Returns the number of IDs handed out so far, which is one more than the
+     * highest ID.
+     *
+     * @return The number of IDs.
+     */
+    int getIdCount()
+    {
+        return idCount;
+    }
+
+}
@@ -22,6 +22,7 @@ public final class EntityType implements Serializable
     private transient BufferedImage image;
     private float imageScale;
     private boolean isTeam;
+    private transient SpriteCache spriteCache;
 
     // TODO(Eric): Get rid of this constructor after we change how we deal with
     // the PlayingElement creation and null value
@@ -108,6 +109,22 @@ public final class EntityType implements Serializable
         return imageScale;
     }
 
+    /**
+     * Returns the sprites of the image of this {@code EntityType}, made the
+     * first time they are needed.
+     */
+    SpriteCache getSpriteCache()
+    {
+        if (spriteCache == null)
+        {
+            spriteCache = new SpriteCache(image,
+                                          (int) (image.getWidth() * imageScale),
+                                          (int) (image.getHeight() * imageScale));
+        }
+
+        return spriteCache;
+    }
+
     void edit(String newName, Color newColor, int newRadius,
               BufferedImage newImage, float newImageScale,
               boolean newIsTeam)
@@ -118,6 +135,11 @@ public final class EntityType implements Serializable
         image = newImage;
         imageScale = newImageScale;
         isTeam = newIsTeam;
+        if (spriteCache != null)
+        {
+            spriteCache.clear();
+            spriteCache = null;
+        }
     }
 
 }
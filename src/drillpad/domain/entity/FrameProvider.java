@@ -0,0 +1,19 @@
+package drillpad.domain.entity;
+
+/**
+ * Materializes the poses of the frames of an {@link Animation} on demand.
+ *
+ * @author Eric Perron
+ */
+interface FrameProvider
+{
+    /**
+     * Returns the poses of every animated {@link Entity} at the specified
+     * frame.
+     *
+     * @param frame The frame requested.
+     * @return The poses at this frame. It never changes afterward.
+     */
+    FrameSnapshot getFrame(int frame);
+
+}
@@ -0,0 +1,229 @@
+package drillpad.domain.entity;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A set of frames stored as sorted ranges that neither overlap nor touch.
+ * <p>
+ * The edits of the timeline move the ranges along with the frames, so a
+ * range keeps covering the same part of the animation.
+ *
+ * @author Eric Perron
+ */
+final class FrameRanges implements Serializable
+{
+    // NOTE(Eric): bounds[2 * i] is the first frame of the range i and
+    // bounds[2 * i + 1] the frame after its last one.
+    private int[] bounds;
+
+    FrameRanges()
+    {
+        bounds = new int[0];
+    }
+
+    FrameRanges copy()
+    {
+        FrameRanges result = new FrameRanges();
+        result.bounds = bounds.clone();
+        return result;
+    }
+
+    boolean isEmpty()
+    {
+        return (bounds.length == 0);
+    }
+
+    boolean contains(int frame)
+    {
+        int range = findRange(frame);
+        return (range != -1 &&
+                frame < bounds[range * 2 + 1]);
+    }
+
+    /**
+     * Returns whether the specified frame is just before or just after a
+     * range, without being part of one.
+     *
+     * @param frame The frame to check.
+     * @return {@code true} if the frame borders a range.
+     */
+    boolean isNextTo(int frame)
+    {
+        return (!contains(frame) &&
+                (contains(frame - 1) ||
+                 contains(frame + 1)));
+    }
+
+    /**
+     * Adds the frames from {@code from} inclusively to {@code to}
+     * exclusively.
+     *
+     * @param from The first frame added.
+     * @param to   The frame after the last frame added.
+     */
+    void add(int from, int to)
+    {
+        int position = (findRange(from) + 1) * 2;
+        int[] result = new int[bounds.length + 2];
+        System.arraycopy(bounds, 0, result, 0, position);
+        result[position] = from;
+        result[position + 1] = to;
+        System.arraycopy(bounds, position, result, position + 2, bounds.length - position);
+        setBounds(result);
+    }
+
+    /**
+     * Removes a single frame, splitting the range holding it in two.
+     *
+     * @param frame The frame removed.
+     */
+    void remove(int frame)
+    {
+        if (!contains(frame))
+        {
+            return;
+        }
+
+        int position = findRange(frame) * 2;
+        int[] result = new int[bounds.length + 2];
+        System.arraycopy(bounds, 0, result, 0, position + 1);
+        result[position + 1] = frame;
+        result[position + 2] = frame + 1;
+        System.arraycopy(bounds, position + 1, result, position + 3, bounds.length - position - 1);
+        setBounds(result);
+    }
+
+    /**
+     * Moves the ranges to make room for frames inserted at the specified
+     * frame. A range holding the frame before them grows to hold them too.
+     *
+     * @param frame The frame at which the new frames start.
+     * @param count The number of frames inserted.
+     */
+    void insert(int frame, int count)
+    {
+        int[] result = bounds.clone();
+        for (int i = 0; i < result.length; ++i)
+        {
+            if (result[i] >= frame)
+            {
+                result[i] += count;
+            }
+        }
+        setBounds(result);
+    }
+
+    /**
+     * Removes the frames from {@code from} inclusively to {@code to}
+     * exclusively and moves the ranges that follow earlier to fill the gap.
+     *
+     * @param from The first frame deleted.
+     * @param to   The frame after the last frame deleted.
+     */
+    void delete(int from, int to)
+    {
+        int[] result = bounds.clone();
+        for (int i = 0; i < result.length; ++i)
+        {
+            if (result[i] >= to)
+            {
+                result[i] -= to - from;
+            }
+            else if (result[i] > from)
+            {
+                result[i] = from;
+            }
+        }
+        setBounds(result);
+    }
+
+    /**
+     * Drops every frame at or after the specified frame.
+     *
+     * @param frame The first frame dropped.
+     */
+    void truncate(int frame)
+    {
+        int[] result = bounds.clone();
+        for (int i = 0; i < result.length; ++i)
+        {
+            result[i] = Math.min(result[i], frame);
+        }
+        setBounds(result);
+    }
+
+    /**
+     * Moves the ranges to the same time in a timeline played at another frame
+     * rate.
+     *
+     * @param oldFramesPerSecond The frame rate of the ranges.
+     * @param newFramesPerSecond The new frame rate.
+     */
+    void resample(int oldFramesPerSecond, int newFramesPerSecond)
+    {
+        int[] result = bounds.clone();
+        for (int i = 0; i < result.length; ++i)
+        {
+            result[i] = DeltaTrack.resampleFrame(result[i], oldFramesPerSecond, newFramesPerSecond);
+        }
+        setBounds(result);
+    }
+
+    /**
+     * Returns the last range that starts at or before the specified frame, or
+     * {@code -1} if there are none.
+     */
+    private int findRange(int frame)
+    {
+        int low = 0;
+        int high = bounds.length / 2 - 1;
+        while (low <= high)
+        {
+            int middle = (low + high) >>> 1;
+            if (bounds[middle * 2] <= frame)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+
+        return high;
+    }
+
+    /**
+     * Stores the specified ranges, sorted by first frame, dropping the empty
+     * ones and joining those that overlap or touch.
+     */
+    private void setBounds(int[] values)
+    {
+        int count = 0;
+        for (int i = 0; i < values.length; i += 2)
+        {
+            int from = values[i];
+            int to = values[i + 1];
+            if (from >= to)
+            {
+                continue;
+            }
+
+            if (count > 0 &&
+                from <= values[count - 1])
+            {
+                values[count - 1] = Math.max(values[count - 1], to);
+            }
+            else
+            {
+                values[count] = from;
+                values[count + 1] = to;
+                count += 2;
+            }
+        }
+
+        bounds = Arrays.copyOf(values, count);
+    }
+
+}
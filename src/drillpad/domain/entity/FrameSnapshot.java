@@ -0,0 +1,125 @@
+package drillpad.domain.entity;
+
+import java.util.Arrays;
+import java.util.List;
+
+import drillpad.general.utility.MathUtilities;
+
+/**
+ * The poses of every animated {@link Entity} at one frame of an
+ * {@link Animation}.
+ * <p>
+ * A snapshot is computed by the {@link AnimationEngine} thread and never
+ * changes afterward, so it can be handed to the event dispatch thread without
+ * any locking. The poses are applied in order, so a later pose for the same
+ * {@code Entity} takes precedence over an earlier one.
+ *
+ * @author Eric Perron
+ */
+final class FrameSnapshot
+{
+    private final int frame;
+    private final Entity[] entities;
+    private final float[] poses;
+    private final int poseCount;
+
+    FrameSnapshot(int frame, Entity[] entities, float[] poses, int poseCount)
+    {
+        this.frame = frame;
+        this.entities = entities;
+        this.poses = poses;
+        this.poseCount = poseCount;
+    }
+
+    int getFrame()
+    {
+        return frame;
+    }
+
+    /**
+     * Computes the poses part of the way between this snapshot and the
+     * specified one. An {@link Entity} missing from {@code next} keeps its
+     * pose from this snapshot.
+     *
+     * @param next   The snapshot of the frame shown after this one.
+     * @param amount How far toward {@code next} the poses are computed.
+     * @return A new snapshot at the frame of this one.
+     */
+    FrameSnapshot interpolate(FrameSnapshot next, float amount)
+    {
+        float[] interpolatedPoses = Arrays.copyOf(poses, poseCount * 3);
+        for (int index = 0; index < poseCount; ++index)
+        {
+            int nextIndex = next.indexOf(entities[index], index);
+            if (nextIndex != -1)
+            {
+                int offset = index * 3;
+                int nextOffset = nextIndex * 3;
+                interpolatedPoses[offset] = MathUtilities.lerp(poses[offset], next.poses[nextOffset], amount);
+                interpolatedPoses[offset + 1] = MathUtilities.lerp(poses[offset + 1], next.poses[nextOffset + 1], amount);
+                interpolatedPoses[offset + 2] += MathUtilities.wrapAngle(next.poses[nextOffset + 2] - poses[offset + 2]) * amount;
+            }
+        }
+
+        return new FrameSnapshot(frame, entities, interpolatedPoses, poseCount);
+    }
+
+    /**
+     * Returns the index of the pose of the specified {@link Entity}, or
+     * {@code -1} if this snapshot has none.
+     */
+    private int indexOf(Entity entity, int expectedIndex)
+    {
+        // NOTE(Eric): Consecutive frames usually have the same entities in the
+        // same order.
+        if (expectedIndex < poseCount &&
+            entities[expectedIndex] == entity)
+        {
+            return expectedIndex;
+        }
+
+        for (int index = poseCount - 1; index >= 0; --index)
+        {
+            if (entities[index] == entity)
+            {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves every {@link Entity} of this snapshot to its pose.
+     * <p>
+     * This must only be called on the event dispatch thread.
+     */
+    void apply()
+    {
+        for (int index = 0; index < poseCount; ++index)
+        {
+            entities[index].setPosition(poses[index * 3], poses[index * 3 + 1]);
+            entities[index].setAngleInRadians(poses[index * 3 + 2]);
+        }
+    }
+
+    /**
+     * Moves every {@link Entity} of this snapshot to its pose, except the
+     * specified ones.
+     * <p>
+     * This must only be called on the event dispatch thread.
+     *
+     * @param excludedEntities The entities to leave where they are.
+     */
+    void apply(List<Entity> excludedEntities)
+    {
+        for (int index = 0; index < poseCount; ++index)
+        {
+            if (!excludedEntities.contains(entities[index]))
+            {
+                entities[index].setPosition(poses[index * 3], poses[index * 3 + 1]);
+                entities[index].setAngleInRadians(poses[index * 3 + 2]);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,302 @@
+package drillpad.domain.entity;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the poses of every animated {@link Entity} as primitive columns.
+ * <p>
+ * Each {@code Entity} is given a stable slot the first time one of its poses
+ * is stored. The x, y and angle values of a slot are kept in three
+ * {@code float[]} indexed by frame, so a recorded frame costs 12 bytes per
+ * entity instead of a map entry, a wrapper object and a {@code Point2D}.
+ * <p>
+ * A frame that does not contain a pose for a given slot holds {@code NaN} in
+ * its columns.
+ *
+ * @author Eric Perron
+ */
+class FrameStore implements Serializable
+{
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final List<Entity> slotEntities;
+    private transient SlotIndex slots;
+    private transient float[][] xs;
+    private transient float[][] ys;
+    private transient float[][] angles;
+    private int frameCount;
+    private transient int capacity;
+
+    FrameStore()
+    {
+        slotEntities = new ArrayList<>();
+        slots = new SlotIndex(slotEntities);
+        xs = new float[0][];
+        ys = new float[0][];
+        angles = new float[0][];
+        frameCount = 0;
+        capacity = INITIAL_CAPACITY;
+    }
+
+    private FrameStore(FrameStore other)
+    {
+        slotEntities = new ArrayList<>(other.slotEntities);
+        slots = new SlotIndex(slotEntities);
+        frameCount = other.frameCount;
+        capacity = other.capacity;
+        int slotCount = slotEntities.size();
+        xs = new float[slotCount][];
+        ys = new float[slotCount][];
+        angles = new float[slotCount][];
+        for (int slot = 0; slot < slotCount; ++slot)
+        {
+            xs[slot] = other.xs[slot].clone();
+            ys[slot] = other.ys[slot].clone();
+            angles[slot] = other.angles[slot].clone();
+        }
+    }
+
+    // NOTE(Eric): Only the used part of each column is written so the saved
+    // files do not carry the extra capacity.
+    private void writeObject(ObjectOutputStream out) throws IOException
+    {
+        out.defaultWriteObject();
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            for (int frame = 0; frame < frameCount; ++frame)
+            {
+                out.writeFloat(xs[slot][frame]);
+                out.writeFloat(ys[slot][frame]);
+                out.writeFloat(angles[slot][frame]);
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        slots = new SlotIndex(slotEntities);
+        capacity = Math.max(INITIAL_CAPACITY, frameCount);
+        int slotCount = slotEntities.size();
+        xs = new float[slotCount][];
+        ys = new float[slotCount][];
+        angles = new float[slotCount][];
+        for (int slot = 0; slot < slotCount; ++slot)
+        {
+            xs[slot] = createColumn(capacity);
+            ys[slot] = createColumn(capacity);
+            angles[slot] = createColumn(capacity);
+            for (int frame = 0; frame < frameCount; ++frame)
+            {
+                xs[slot][frame] = in.readFloat();
+                ys[slot][frame] = in.readFloat();
+                angles[slot][frame] = in.readFloat();
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of this store that does not change when this one does.
+     * The entities themselves are shared.
+     *
+     * @return The copy.
+     */
+    FrameStore copy()
+    {
+        return new FrameStore(this);
+    }
+
+    /**
+     * Returns the slot of the specified {@link Entity}, creating it if this
+     * is the first time the {@code Entity} is stored.
+     *
+     * @param entity The {@code Entity} whose slot is requested.
+     * @return The slot of the {@code Entity}.
+     */
+    int addSlot(Entity entity)
+    {
+        int slot = slots.get(entity);
+        if (slot == -1)
+        {
+            slot = slotEntities.size();
+            slotEntities.add(entity);
+            slots.put(entity, slot);
+
+            xs = Arrays.copyOf(xs, slot + 1);
+            ys = Arrays.copyOf(ys, slot + 1);
+            angles = Arrays.copyOf(angles, slot + 1);
+            xs[slot] = createColumn(capacity);
+            ys[slot] = createColumn(capacity);
+            angles[slot] = createColumn(capacity);
+        }
+
+        return slot;
+    }
+
+    /**
+     * Returns the slot of the specified {@link Entity} or {@code -1} if it was
+     * never stored.
+     *
+     * @param entity The {@code Entity} whose slot is requested.
+     * @return The slot of the {@code Entity} or {@code -1}.
+     */
+    int getSlot(Entity entity)
+    {
+        return slots.get(entity);
+    }
+
+    int getSlotCount()
+    {
+        return slotEntities.size();
+    }
+
+    Entity getEntity(int slot)
+    {
+        return slotEntities.get(slot);
+    }
+
+    int getFrameCount()
+    {
+        return frameCount;
+    }
+
+    /**
+     * Grows or shrinks the number of frames.
+     * <p>
+     * New frames do not contain any pose. Frames past the new count are
+     * discarded.
+     *
+     * @param value The new number of frames.
+     */
+    void setFrameCount(int value)
+    {
+        if (value > capacity)
+        {
+            int newCapacity = Math.max(value, capacity * 2);
+            for (int slot = 0; slot < slotEntities.size(); ++slot)
+            {
+                xs[slot] = growColumn(xs[slot], newCapacity);
+                ys[slot] = growColumn(ys[slot], newCapacity);
+                angles[slot] = growColumn(angles[slot], newCapacity);
+            }
+            capacity = newCapacity;
+        }
+        else if (value < frameCount)
+        {
+            for (int slot = 0; slot < slotEntities.size(); ++slot)
+            {
+                Arrays.fill(xs[slot], value, frameCount, Float.NaN);
+                Arrays.fill(ys[slot], value, frameCount, Float.NaN);
+                Arrays.fill(angles[slot], value, frameCount, Float.NaN);
+            }
+        }
+
+        frameCount = value;
+    }
+
+    /**
+     * Stores the current position and angle of the specified {@link Entity}
+     * in the specified frame.
+     *
+     * @param frame  The frame in which to store the pose.
+     * @param entity The {@code Entity} whose pose is stored.
+     */
+    void setPose(int frame, Entity entity)
+    {
+        int slot = addSlot(entity);
+        xs[slot][frame] = entity.getPosition().x;
+        ys[slot][frame] = entity.getPosition().y;
+        angles[slot][frame] = entity.getAngleInRadians();
+    }
+
+    /**
+     * Removes every pose stored in the specified frame.
+     *
+     * @param frame The frame to clear.
+     */
+    void clearFrame(int frame)
+    {
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            xs[slot][frame] = Float.NaN;
+            ys[slot][frame] = Float.NaN;
+            angles[slot][frame] = Float.NaN;
+        }
+    }
+
+    /**
+     * Copies every pose stored in a frame to another frame.
+     *
+     * @param source      The frame to copy.
+     * @param destination The frame receiving the poses.
+     */
+    void copyFrame(int source, int destination)
+    {
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            xs[slot][destination] = xs[slot][source];
+            ys[slot][destination] = ys[slot][source];
+            angles[slot][destination] = angles[slot][source];
+        }
+    }
+
+    boolean hasPose(int frame, int slot)
+    {
+        return !Float.isNaN(xs[slot][frame]);
+    }
+
+    float getX(int frame, int slot)
+    {
+        return xs[slot][frame];
+    }
+
+    float getY(int frame, int slot)
+    {
+        return ys[slot][frame];
+    }
+
+    float getAngle(int frame, int slot)
+    {
+        return angles[slot][frame];
+    }
+
+    /**
+     * Moves every {@link Entity} that has a pose in the specified frame to
+     * that pose.
+     *
+     * @param frame The frame to apply.
+     */
+    void applyFrame(int frame)
+    {
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            if (hasPose(frame, slot))
+            {
+                Entity entity = slotEntities.get(slot);
+                entity.setPosition(xs[slot][frame], ys[slot][frame]);
+                entity.setAngleInRadians(angles[slot][frame]);
+            }
+        }
+    }
+
+    private static float[] createColumn(int length)
+    {
+        float[] column = new float[length];
+        Arrays.fill(column, Float.NaN);
+        return column;
+    }
+
+    private static float[] growColumn(float[] column, int length)
+    {
+        float[] newColumn = Arrays.copyOf(column, length);
+        Arrays.fill(newColumn, column.length, length, Float.NaN);
+        return newColumn;
+    }
+
+}
@@ -0,0 +1,168 @@
+package drillpad.domain.entity;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import drillpad.general.utility.MathUtilities;
+
+/**
+ * Captures the poses of the recorded entities every time the user moves them
+ * and resamples them at the frames of the {@link Animation}.
+ * <p>
+ * The poses are stamped with {@link System#nanoTime()} and pushed in a
+ * lock-free ring buffer by the event dispatch thread. The
+ * {@link AnimationEngine} thread reads them back and interpolates between the
+ * two samples surrounding the time of each frame, so a movement made between
+ * two frames is not lost and a late frame does not record the pose of a later
+ * time.
+ * <p>
+ * There must be a single producer thread and a single consumer thread. If the
+ * consumer falls behind by more than the capacity of the buffer, the newest
+ * samples are dropped until it catches up.
+ *
+ * @author Eric Perron
+ */
+class InputRecorder
+{
+    private static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+
+    private final Entity[] entities;
+    private final int stride;
+    private final long[] times;
+    private final float[] poses;
+
+    // NOTE(Eric): Both counters only grow. The producer is the only one
+    // writing writeCount and the consumer the only one writing readCount.
+    private final AtomicLong writeCount;
+    private final AtomicLong readCount;
+
+    // NOTE(Eric): Only used by the consumer.
+    private final float[] previousPoses;
+    private final float[] nextPoses;
+    private long previousTime;
+    private long nextTime;
+    private boolean hasPrevious;
+    private boolean hasNext;
+
+    InputRecorder(List<Entity> recordedEntities)
+    {
+        entities = recordedEntities.toArray(new Entity[recordedEntities.size()]);
+        stride = entities.length * 3;
+        times = new long[CAPACITY];
+        poses = new float[CAPACITY * stride];
+        writeCount = new AtomicLong(0);
+        readCount = new AtomicLong(0);
+        previousPoses = new float[stride];
+        nextPoses = new float[stride];
+        hasPrevious = false;
+        hasNext = false;
+    }
+
+    Entity[] getEntities()
+    {
+        return entities;
+    }
+
+    /**
+     * Pushes the current pose of every recorded entity in the buffer.
+     * <p>
+     * This must only be called on the event dispatch thread.
+     */
+    void capture()
+    {
+        long write = writeCount.get();
+        if (write - readCount.get() == CAPACITY)
+        {
+            return;
+        }
+
+        int index = (int) (write & MASK);
+        times[index] = System.nanoTime();
+        int offset = index * stride;
+        for (Entity entity : entities)
+        {
+            poses[offset++] = entity.getPosition().x;
+            poses[offset++] = entity.getPosition().y;
+            poses[offset++] = entity.getAngleInRadians();
+        }
+
+        // NOTE(Eric): The sample becomes visible to the consumer only once
+        // this volatile write is done.
+        writeCount.set(write + 1);
+    }
+
+    /**
+     * Computes the pose of every recorded entity at the specified time from
+     * the captured samples. The poses are in the same order as
+     * {@link #getEntities()}, three values per entity.
+     * <p>
+     * The times must be requested in increasing order.
+     *
+     * @param time   The time, from {@link System#nanoTime()}.
+     * @param result Receives the poses.
+     * @return {@code false} if nothing was captured yet.
+     */
+    boolean resample(long time, float[] result)
+    {
+        while (true)
+        {
+            if (!hasNext)
+            {
+                hasNext = poll();
+            }
+            if (hasNext &&
+                nextTime - time <= 0)
+            {
+                System.arraycopy(nextPoses, 0, previousPoses, 0, stride);
+                previousTime = nextTime;
+                hasPrevious = true;
+                hasNext = false;
+            }
+            else
+            {
+                break;
+            }
+        }
+
+        if (!hasPrevious)
+        {
+            return false;
+        }
+
+        if (hasNext)
+        {
+            float amount = (float) (time - previousTime) / (float) (nextTime - previousTime);
+            for (int offset = 0; offset < stride; offset += 3)
+            {
+                result[offset] = MathUtilities.lerp(previousPoses[offset], nextPoses[offset], amount);
+                result[offset + 1] = MathUtilities.lerp(previousPoses[offset + 1], nextPoses[offset + 1], amount);
+                result[offset + 2] = previousPoses[offset + 2] +
+                                     MathUtilities.wrapAngle(nextPoses[offset + 2] - previousPoses[offset + 2]) * amount;
+            }
+        }
+        else
+        {
+            System.arraycopy(previousPoses, 0, result, 0, stride);
+        }
+
+        return true;
+    }
+
+    private boolean poll()
+    {
+        long read = readCount.get();
+        if (read == writeCount.get())
+        {
+            return false;
+        }
+
+        int index = (int) (read & MASK);
+        nextTime = times[index];
+        System.arraycopy(poses, index * stride, nextPoses, 0, stride);
+        readCount.set(read + 1);
+
+        return true;
+    }
+
+}
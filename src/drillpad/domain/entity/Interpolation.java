@@ -0,0 +1,77 @@
+package drillpad.domain.entity;
+
+import drillpad.general.utility.MathUtilities;
+
+/**
+ * The ways the poses of an {@link Entity} can be computed between two
+ * keyframes of an {@link Animation}.
+ *
+ * @author Eric Perron
+ */
+public enum Interpolation
+{
+    /**
+     * Moves in a straight line, at constant speed, from one keyframe to the
+     * next.
+     */
+    LINEAR,
+    /**
+     * Moves along a Catmull-Rom spline passing through every keyframe, which
+     * gives a smooth path and no sudden change of speed on keyframes.
+     */
+    CATMULL_ROM;
+
+    /**
+     * Interpolates between {@code value2} and {@code value3}.
+     * <p>
+     * {@code value1} and {@code value4} are the values of the keyframes
+     * surrounding the interpolated segment. They are only used by
+     * {@link #CATMULL_ROM}.
+     *
+     * @param value1 The value of the keyframe before the segment.
+     * @param value2 The value at the start of the segment.
+     * @param value3 The value at the end of the segment.
+     * @param value4 The value of the keyframe after the segment.
+     * @param amount Value between 0 and 1 indicating the weight of value3.
+     * @return The interpolated value.
+     */
+    float interpolate(float value1, float value2,
+                      float value3, float value4, float amount)
+    {
+        float result;
+        if (this == CATMULL_ROM)
+        {
+            result = MathUtilities.catmullRom(value1, value2, value3, value4, amount);
+        }
+        else
+        {
+            result = MathUtilities.lerp(value2, value3, amount);
+        }
+
+        return result;
+    }
+
+    /**
+     * Interpolates between the angles {@code angle2} and {@code angle3} using
+     * the shortest rotation between each pair of angles.
+     *
+     * @param angle1 The angle of the keyframe before the segment, in radians.
+     * @param angle2 The angle at the start of the segment, in radians.
+     * @param angle3 The angle at the end of the segment, in radians.
+     * @param angle4 The angle of the keyframe after the segment, in radians.
+     * @param amount Value between 0 and 1 indicating the weight of angle3.
+     * @return The interpolated angle, in radians.
+     */
+    float interpolateAngle(float angle1, float angle2,
+                           float angle3, float angle4, float amount)
+    {
+        // NOTE(Eric): Unwrap the angles around angle2 so we never turn the long
+        // way around when going from -PI to PI.
+        float unwrapped1 = angle2 - MathUtilities.wrapAngle(angle2 - angle1);
+        float unwrapped3 = angle2 + MathUtilities.wrapAngle(angle3 - angle2);
+        float unwrapped4 = unwrapped3 + MathUtilities.wrapAngle(angle4 - angle3);
+
+        return interpolate(unwrapped1, angle2, unwrapped3, unwrapped4, amount);
+    }
+
+}
@@ -0,0 +1,907 @@
+package drillpad.domain.entity;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Holds the keyframes of a frame by frame {@link Animation}.
+ * <p>
+ * Only the pose of each {@link Entity} at a keyframe is stored. The frames
+ * between two keyframes are computed on demand using the selected
+ * {@link Interpolation}, so the memory used grows with the number of
+ * keyframes instead of the length of the timeline.
+ * <p>
+ * The last keyframe is held until the end of the timeline.
+ * <p>
+ * The keyframes are kept in a piece table. Every recorded keyframe is a row
+ * appended to a {@link FrameStore} along with the number of frames it lasts,
+ * and a row never changes afterward. The timeline is a sequence of pieces,
+ * each one being a run of consecutive rows. Recording over the middle of the
+ * timeline, inserting frames or deleting a range of frames only splits and
+ * rearranges pieces, so the keyframes that follow are kept and never moved.
+ * <p>
+ * The pieces are the nodes of a treap, a binary search tree ordered by
+ * position in the timeline and balanced by a random priority. Each node
+ * holds the number of keyframes and frames of its subtree, so finding a
+ * keyframe by index or by frame, and splitting or joining the sequence, take
+ * a logarithmic time in the number of pieces.
+ * <p>
+ * The rows and pieces replaced by the edits are compacted away once they
+ * outnumber the keyframes, and before the track is written, so the memory
+ * used and the saved files do not grow with the editing history.
+ *
+ * @author Eric Perron
+ */
+class KeyframeTrack implements Serializable
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    // NOTE(Eric): Each row of this store is a recorded keyframe, not a frame.
+    // Rows that are no longer part of any piece are kept until compact()
+    // renumbers the pieces.
+    private final FrameStore rows;
+    private int rowCount;
+    // NOTE(Eric): Only up to date while the track is written or read, the
+    // tree holds the pieces otherwise.
+    private int pieceCount;
+    private int firstFrame;
+    private Interpolation interpolation;
+
+    // NOTE(Eric): rowStarts[row] is the sum of the lengths of the rows before
+    // it, so the frames between two rows of a piece are a subtraction.
+    private transient int[] rowStarts;
+
+    // NOTE(Eric): The nodes of the treap, -1 being no node. The pieces
+    // dropped by an edit are left behind until compact().
+    private transient int[] pieceRows;
+    private transient int[] pieceRowCounts;
+    private transient int[] pieceLefts;
+    private transient int[] pieceRights;
+    private transient int[] subtreeKeyframeCounts;
+    private transient int[] subtreeFrameCounts;
+    private transient int nodeCount;
+    private transient int root;
+
+    // NOTE(Eric): The two trees made by the last split().
+    private transient int splitLeft;
+    private transient int splitRight;
+
+    KeyframeTrack()
+    {
+        rows = new FrameStore();
+        rowCount = 0;
+        pieceCount = 0;
+        firstFrame = 0;
+        interpolation = Interpolation.CATMULL_ROM;
+        rowStarts = new int[INITIAL_CAPACITY + 1];
+        initializePieces(INITIAL_CAPACITY);
+    }
+
+    private KeyframeTrack(KeyframeTrack other)
+    {
+        rows = other.rows.copy();
+        rowCount = other.rowCount;
+        pieceCount = other.pieceCount;
+        firstFrame = other.firstFrame;
+        interpolation = other.interpolation;
+        rowStarts = other.rowStarts.clone();
+        pieceRows = other.pieceRows.clone();
+        pieceRowCounts = other.pieceRowCounts.clone();
+        pieceLefts = other.pieceLefts.clone();
+        pieceRights = other.pieceRights.clone();
+        subtreeKeyframeCounts = other.subtreeKeyframeCounts.clone();
+        subtreeFrameCounts = other.subtreeFrameCounts.clone();
+        nodeCount = other.nodeCount;
+        root = other.root;
+    }
+
+    // NOTE(Eric): Called while the Animation is locked, like every edit. Once
+    // compacted, the track is a single piece holding every row.
+    private void writeObject(ObjectOutputStream out) throws IOException
+    {
+        if (!isCompact())
+        {
+            compact();
+        }
+        pieceCount = isEmpty() ? 0 : 1;
+        out.defaultWriteObject();
+        for (int row = 0; row < rowCount; ++row)
+        {
+            out.writeInt(rowStarts[row + 1] - rowStarts[row]);
+        }
+        if (pieceCount == 1)
+        {
+            out.writeInt(0);
+            out.writeInt(rowCount);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        rowStarts = new int[Math.max(INITIAL_CAPACITY, rowCount) + 1];
+        for (int row = 0; row < rowCount; ++row)
+        {
+            rowStarts[row + 1] = rowStarts[row] + in.readInt();
+        }
+        initializePieces(Math.max(INITIAL_CAPACITY, pieceCount));
+        for (int piece = 0; piece < pieceCount; ++piece)
+        {
+            int row = in.readInt();
+            int count = in.readInt();
+            root = merge(root, newPiece(row, count));
+        }
+    }
+
+    /**
+     * Returns a copy of this track that does not change when this one does.
+     * The entities themselves are shared.
+     *
+     * @return The copy.
+     */
+    KeyframeTrack copy()
+    {
+        return new KeyframeTrack(this);
+    }
+
+    /**
+     * Stores the current pose of every specified entity as a keyframe at the
+     * specified frame. The keyframes that follow are kept at their frame.
+     * <ul>
+     * <li>On an existing keyframe, its poses are replaced. The last keyframe
+     * then lasts {@code length} frames.</li>
+     * <li>Between two keyframes, a keyframe is inserted and the previous one
+     * is shortened to make room for it.</li>
+     * <li>Before the first or after the last keyframe, a keyframe is
+     * added.</li>
+     * </ul>
+     *
+     * @param frame    The frame of the keyframe.
+     * @param entities The entities whose pose are stored.
+     * @param length   The number of frames a new last keyframe lasts.
+     * @return The frame following the recorded keyframe.
+     */
+    int recordKeyframe(int frame, List<Entity> entities, int length)
+    {
+        if (isEmpty())
+        {
+            firstFrame = frame;
+            splice(0, 0, addRow(entities, length), -1);
+            return frame + length;
+        }
+
+        if (frame < firstFrame)
+        {
+            int nextFrame = firstFrame;
+            firstFrame = frame;
+            splice(0, 0, addRow(entities, nextFrame - frame), -1);
+            return nextFrame;
+        }
+
+        int index = getKeyframeIndex(frame);
+        int keyframeFrame = getKeyframeFrame(index);
+        int keyframeLength = getKeyframeLength(index);
+        if (index == getKeyframeCount() - 1)
+        {
+            keyframeLength = Math.max(keyframeLength, frame + length - keyframeFrame);
+        }
+
+        int newLength = keyframeFrame + keyframeLength - frame;
+        if (frame == keyframeFrame)
+        {
+            splice(index, index + 1, addRow(entities, newLength), -1);
+        }
+        else
+        {
+            splice(index,
+                   index + 1,
+                   copyRow(getRow(index), frame - keyframeFrame),
+                   addRow(entities, newLength));
+        }
+
+        return frame + newLength;
+    }
+
+    /**
+     * Inserts frames at the specified frame. The keyframe in effect just
+     * before that frame lasts {@code count} frames longer, and every keyframe
+     * at or after it is moved later. Nothing changes past the last frame.
+     *
+     * @param frame The frame at which the new frames start.
+     * @param count The number of frames inserted.
+     */
+    void insertFrames(int frame, int count)
+    {
+        if (isEmpty() ||
+            count <= 0 ||
+            frame >= getFrameCount())
+        {
+            return;
+        }
+
+        if (frame <= firstFrame)
+        {
+            firstFrame += count;
+            return;
+        }
+
+        int index = getKeyframeIndex(frame);
+        if (getKeyframeFrame(index) == frame)
+        {
+            --index;
+        }
+        splice(index,
+               index + 1,
+               copyRow(getRow(index), getKeyframeLength(index) + count),
+               -1);
+    }
+
+    /**
+     * Deletes the frames from {@code from} inclusively to {@code to}
+     * exclusively, and moves the frames that follow earlier to fill the gap.
+     * <p>
+     * The keyframes starting inside the range are deleted, except the one in
+     * effect at {@code to}, which now starts at {@code from}. The keyframe in
+     * effect at {@code from} is shortened to end there.
+     *
+     * @param from The first frame deleted.
+     * @param to   The frame after the last frame deleted.
+     */
+    void deleteFrames(int from, int to)
+    {
+        to = Math.min(to, getFrameCount());
+        if (isEmpty() ||
+            from >= to)
+        {
+            return;
+        }
+
+        if (to <= firstFrame)
+        {
+            firstFrame -= to - from;
+            return;
+        }
+        if (from < firstFrame)
+        {
+            to -= firstFrame - from;
+            firstFrame = from;
+        }
+
+        int first = getKeyframeIndex(from);
+        int firstStart = getKeyframeFrame(first);
+        if (to == getFrameCount())
+        {
+            splice(first,
+                   getKeyframeCount(),
+                   (firstStart < from) ? copyRow(getRow(first), from - firstStart) : -1,
+                   -1);
+            return;
+        }
+
+        int last = getKeyframeIndex(to);
+        int lastEnd = getKeyframeFrame(last) + getKeyframeLength(last);
+        if (first == last)
+        {
+            splice(first,
+                   first + 1,
+                   copyRow(getRow(first), getKeyframeLength(first) - (to - from)),
+                   -1);
+        }
+        else
+        {
+            splice(first,
+                   last + 1,
+                   (firstStart < from) ? copyRow(getRow(first), from - firstStart) : -1,
+                   copyRow(getRow(last), lastEnd - to));
+        }
+    }
+
+    /**
+     * Moves every keyframe to the frame at the same time in a timeline played
+     * at another frame rate. Keyframes that end up in the same frame are kept,
+     * the latest one being in effect at that frame.
+     *
+     * @param oldFramesPerSecond The frame rate the keyframes were recorded at.
+     * @param newFramesPerSecond The new frame rate.
+     */
+    void resample(int oldFramesPerSecond, int newFramesPerSecond)
+    {
+        int keyframeCount = getKeyframeCount();
+        if (keyframeCount == 0)
+        {
+            return;
+        }
+
+        // NOTE(Eric): Once compacted, the keyframes are the rows in timeline
+        // order, so only the end of each row has to move.
+        compact();
+        int newFirstFrame = DeltaTrack.resampleFrame(firstFrame, oldFramesPerSecond, newFramesPerSecond);
+        for (int row = 0; row < keyframeCount; ++row)
+        {
+            int end = firstFrame + rowStarts[row + 1];
+            rowStarts[row + 1] = DeltaTrack.resampleFrame(end, oldFramesPerSecond, newFramesPerSecond) -
+                                 newFirstFrame;
+        }
+
+        firstFrame = newFirstFrame;
+        updateSubtree(root);
+    }
+
+    private boolean isCompact()
+    {
+        return (isEmpty() ?
+                rowCount == 0 :
+                (pieceLefts[root] == -1 &&
+                 pieceRights[root] == -1 &&
+                 pieceRows[root] == 0 &&
+                 pieceRowCounts[root] == rowCount));
+    }
+
+    /**
+     * Copies the rows of the keyframes in timeline order to the start of the
+     * store and drops the others, leaving a single piece.
+     */
+    private void compact()
+    {
+        int keyframeCount = getKeyframeCount();
+
+        // NOTE(Eric): The rows are first copied past the current ones, since
+        // a row may still be needed after its place was taken.
+        rows.setFrameCount(rowCount + keyframeCount);
+        int[] lengths = new int[keyframeCount];
+        for (int index = 0; index < keyframeCount; ++index)
+        {
+            rows.copyFrame(getRow(index), rowCount + index);
+            lengths[index] = getKeyframeLength(index);
+        }
+        for (int index = 0; index < keyframeCount; ++index)
+        {
+            rows.copyFrame(rowCount + index, index);
+            rowStarts[index + 1] = rowStarts[index] + lengths[index];
+        }
+        rowCount = keyframeCount;
+        rows.setFrameCount(rowCount);
+
+        initializePieces(INITIAL_CAPACITY);
+        if (keyframeCount > 0)
+        {
+            root = newPiece(0, keyframeCount);
+        }
+    }
+
+    private int addRow(List<Entity> entities, int length)
+    {
+        int row = addRow(length);
+        for (Entity entity : entities)
+        {
+            rows.setPose(row, entity);
+        }
+
+        return row;
+    }
+
+    private int copyRow(int sourceRow, int length)
+    {
+        int row = addRow(length);
+        rows.copyFrame(sourceRow, row);
+
+        return row;
+    }
+
+    private int addRow(int length)
+    {
+        int row = rowCount;
+        if (row + 1 == rowStarts.length)
+        {
+            rowStarts = Arrays.copyOf(rowStarts, rowStarts.length * 2);
+        }
+        rowStarts[row + 1] = rowStarts[row] + length;
+        rowCount = row + 1;
+        rows.setFrameCount(rowCount);
+
+        return row;
+    }
+
+    /**
+     * Replaces the keyframes from {@code from} inclusively to {@code to}
+     * exclusively by up to two rows.
+     *
+     * @param from      The index of the first keyframe to replace.
+     * @param to        The index after the last keyframe to replace.
+     * @param firstRow  The first row to insert or {@code -1}.
+     * @param secondRow The second row to insert or {@code -1}.
+     */
+    private void splice(int from, int to, int firstRow, int secondRow)
+    {
+        split(root, to);
+        int tail = splitRight;
+        split(splitLeft, from);
+        int head = splitLeft;
+
+        int inserted = -1;
+        if (firstRow != -1 &&
+            secondRow == firstRow + 1)
+        {
+            inserted = newPiece(firstRow, 2);
+        }
+        else
+        {
+            if (firstRow != -1)
+            {
+                inserted = newPiece(firstRow, 1);
+            }
+            if (secondRow != -1)
+            {
+                inserted = merge(inserted, newPiece(secondRow, 1));
+            }
+        }
+        root = merge(merge(head, inserted), tail);
+
+        int keyframeCount = getKeyframeCount();
+        if (rowCount - keyframeCount > keyframeCount ||
+            nodeCount > keyframeCount * 4 + INITIAL_CAPACITY)
+        {
+            compact();
+        }
+    }
+
+    private void initializePieces(int capacity)
+    {
+        pieceRows = new int[capacity];
+        pieceRowCounts = new int[capacity];
+        pieceLefts = new int[capacity];
+        pieceRights = new int[capacity];
+        subtreeKeyframeCounts = new int[capacity];
+        subtreeFrameCounts = new int[capacity];
+        nodeCount = 0;
+        root = -1;
+    }
+
+    private int newPiece(int row, int count)
+    {
+        if (nodeCount == pieceRows.length)
+        {
+            int capacity = nodeCount * 2;
+            pieceRows = Arrays.copyOf(pieceRows, capacity);
+            pieceRowCounts = Arrays.copyOf(pieceRowCounts, capacity);
+            pieceLefts = Arrays.copyOf(pieceLefts, capacity);
+            pieceRights = Arrays.copyOf(pieceRights, capacity);
+            subtreeKeyframeCounts = Arrays.copyOf(subtreeKeyframeCounts, capacity);
+            subtreeFrameCounts = Arrays.copyOf(subtreeFrameCounts, capacity);
+        }
+
+        int piece = nodeCount++;
+        pieceRows[piece] = row;
+        pieceRowCounts[piece] = count;
+        pieceLefts[piece] = -1;
+        pieceRights[piece] = -1;
+        updateSubtree(piece);
+
+        return piece;
+    }
+
+    /**
+     * Returns the priority of a piece in the treap, a fixed hash of its number
+     * standing for a random value.
+     */
+    private static int getPriority(int piece)
+    {
+        int hash = piece * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    private int getSubtreeKeyframeCount(int piece)
+    {
+        return (piece == -1) ? 0 : subtreeKeyframeCounts[piece];
+    }
+
+    private int getSubtreeFrameCount(int piece)
+    {
+        return (piece == -1) ? 0 : subtreeFrameCounts[piece];
+    }
+
+    private int getPieceFrameCount(int piece)
+    {
+        int row = pieceRows[piece];
+        return rowStarts[row + pieceRowCounts[piece]] - rowStarts[row];
+    }
+
+    private void updateSubtree(int piece)
+    {
+        int left = pieceLefts[piece];
+        int right = pieceRights[piece];
+        subtreeKeyframeCounts[piece] = getSubtreeKeyframeCount(left) +
+                                       pieceRowCounts[piece] +
+                                       getSubtreeKeyframeCount(right);
+        subtreeFrameCounts[piece] = getSubtreeFrameCount(left) +
+                                    getPieceFrameCount(piece) +
+                                    getSubtreeFrameCount(right);
+    }
+
+    /**
+     * Splits the specified tree in two, the first {@code index} keyframes
+     * going to {@link #splitLeft} and the others to {@link #splitRight}. A
+     * piece holding keyframes of both sides is cut in two pieces.
+     */
+    private void split(int piece, int index)
+    {
+        if (piece == -1)
+        {
+            splitLeft = -1;
+            splitRight = -1;
+            return;
+        }
+
+        int leftCount = getSubtreeKeyframeCount(pieceLefts[piece]);
+        int count = pieceRowCounts[piece];
+        if (index <= leftCount)
+        {
+            split(pieceLefts[piece], index);
+            pieceLefts[piece] = splitRight;
+            updateSubtree(piece);
+            splitRight = piece;
+        }
+        else if (index >= leftCount + count)
+        {
+            split(pieceRights[piece], index - leftCount - count);
+            pieceRights[piece] = splitLeft;
+            updateSubtree(piece);
+            splitLeft = piece;
+        }
+        else
+        {
+            int offset = index - leftCount;
+            int rightPiece = newPiece(pieceRows[piece] + offset, count - offset);
+            int rightTree = pieceRights[piece];
+            pieceRowCounts[piece] = offset;
+            pieceRights[piece] = -1;
+            updateSubtree(piece);
+            splitLeft = piece;
+            splitRight = merge(rightPiece, rightTree);
+        }
+    }
+
+    /**
+     * Joins two trees, every keyframe of {@code left} coming before those of
+     * {@code right}.
+     *
+     * @return The joined tree.
+     */
+    private int merge(int left, int right)
+    {
+        if (left == -1)
+        {
+            return right;
+        }
+        if (right == -1)
+        {
+            return left;
+        }
+
+        if (getPriority(left) > getPriority(right))
+        {
+            pieceRights[left] = merge(pieceRights[left], right);
+            updateSubtree(left);
+            return left;
+        }
+
+        pieceLefts[right] = merge(left, pieceLefts[right]);
+        updateSubtree(right);
+        return right;
+    }
+
+    private int getRow(int index)
+    {
+        int piece = root;
+        while (true)
+        {
+            int leftCount = getSubtreeKeyframeCount(pieceLefts[piece]);
+            if (index < leftCount)
+            {
+                piece = pieceLefts[piece];
+                continue;
+            }
+
+            index -= leftCount;
+            if (index < pieceRowCounts[piece])
+            {
+                return pieceRows[piece] + index;
+            }
+            index -= pieceRowCounts[piece];
+            piece = pieceRights[piece];
+        }
+    }
+
+    /**
+     * Returns the last position in the specified sorted range whose value is
+     * lower than or equal to the specified key, or {@code from} if there are
+     * none.
+     */
+    private static int findLast(int[] values, int from, int to, int key)
+    {
+        int low = from;
+        int high = to - 1;
+        while (low < high)
+        {
+            int middle = (low + high + 1) >>> 1;
+            if (values[middle] <= key)
+            {
+                low = middle;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Returns the index of the keyframe in effect at the specified frame,
+     * which is the last keyframe that starts at or before that frame.
+     *
+     * @param frame The frame to look for.
+     * @return The index of the keyframe, or {@code 0} if the frame is before
+     *         the first keyframe.
+     */
+    int getKeyframeIndex(int frame)
+    {
+        if (isEmpty())
+        {
+            return 0;
+        }
+
+        // NOTE(Eric): On a tie, the search goes right so the last keyframe
+        // starting at the frame is found.
+        int offset = frame - firstFrame;
+        int index = 0;
+        int piece = root;
+        while (true)
+        {
+            int left = pieceLefts[piece];
+            if (left != -1 &&
+                offset < subtreeFrameCounts[left])
+            {
+                piece = left;
+                continue;
+            }
+
+            offset -= getSubtreeFrameCount(left);
+            index += getSubtreeKeyframeCount(left);
+            int right = pieceRights[piece];
+            int pieceFrameCount = getPieceFrameCount(piece);
+            if (right != -1 &&
+                offset >= pieceFrameCount)
+            {
+                offset -= pieceFrameCount;
+                index += pieceRowCounts[piece];
+                piece = right;
+                continue;
+            }
+
+            int firstRow = pieceRows[piece];
+            int row = findLast(rowStarts,
+                               firstRow,
+                               firstRow + pieceRowCounts[piece],
+                               rowStarts[firstRow] + offset);
+            return index + row - firstRow;
+        }
+    }
+
+    /**
+     * Returns the index of the keyframe closest to the specified frame. When
+     * the frame is halfway between two keyframes, the earlier one is returned.
+     *
+     * @param frame The frame to look for.
+     * @return The index of the closest keyframe, or {@code 0} if there are no
+     *         keyframes.
+     */
+    int getNearestKeyframeIndex(int frame)
+    {
+        int index = getKeyframeIndex(frame);
+        if (index + 1 < getKeyframeCount() &&
+            getKeyframeFrame(index + 1) - frame < frame - getKeyframeFrame(index))
+        {
+            ++index;
+        }
+
+        return index;
+    }
+
+    /**
+     * Computes the pose of the entity in the specified slot at the specified
+     * frame.
+     *
+     * @param frame The frame to compute.
+     * @param slot  The slot of the entity.
+     * @param pose  Receives the x, y and angle of the entity.
+     * @return {@code false} if the entity has no pose at this frame.
+     */
+    boolean getPose(int frame, int slot, float[] pose)
+    {
+        if (isEmpty())
+        {
+            return false;
+        }
+
+        int index = getKeyframeIndex(frame);
+        int next = index + 1;
+        if (!hasPose(index, slot))
+        {
+            return false;
+        }
+
+        if (next == getKeyframeCount() ||
+            frame <= getKeyframeFrame(index) ||
+            !hasPose(next, slot))
+        {
+            pose[0] = getX(index, slot);
+            pose[1] = getY(index, slot);
+            pose[2] = getAngle(index, slot);
+        }
+        else
+        {
+            int previous = (index > 0 && hasPose(index - 1, slot)) ?
+                           index - 1 :
+                           index;
+            int after = (next + 1 < getKeyframeCount() && hasPose(next + 1, slot)) ?
+                        next + 1 :
+                        next;
+            float amount = (float) (frame - getKeyframeFrame(index)) /
+                           (float) getKeyframeLength(index);
+
+            pose[0] = interpolation.interpolate(getX(previous, slot),
+                                                getX(index, slot),
+                                                getX(next, slot),
+                                                getX(after, slot),
+                                                amount);
+            pose[1] = interpolation.interpolate(getY(previous, slot),
+                                                getY(index, slot),
+                                                getY(next, slot),
+                                                getY(after, slot),
+                                                amount);
+            pose[2] = interpolation.interpolateAngle(getAngle(previous, slot),
+                                                     getAngle(index, slot),
+                                                     getAngle(next, slot),
+                                                     getAngle(after, slot),
+                                                     amount);
+        }
+
+        return true;
+    }
+
+    /**
+     * Moves every keyframed {@link Entity} to its pose at the specified frame.
+     *
+     * @param frame The frame to apply.
+     */
+    void applyFrame(int frame)
+    {
+        float[] pose = new float[3];
+        for (int slot = 0; slot < rows.getSlotCount(); ++slot)
+        {
+            if (getPose(frame, slot, pose))
+            {
+                Entity entity = rows.getEntity(slot);
+                entity.setPosition(pose[0], pose[1]);
+                entity.setAngleInRadians(pose[2]);
+            }
+        }
+    }
+
+    /**
+     * Returns the slot of the specified {@link Entity} or {@code -1} if it is
+     * not keyframed.
+     *
+     * @param entity The {@code Entity} whose slot is requested.
+     * @return The slot of the {@code Entity} or {@code -1}.
+     */
+    int getSlot(Entity entity)
+    {
+        return rows.getSlot(entity);
+    }
+
+    int getSlotCount()
+    {
+        return rows.getSlotCount();
+    }
+
+    Entity getEntity(int slot)
+    {
+        return rows.getEntity(slot);
+    }
+
+    boolean hasPose(int index, int slot)
+    {
+        return rows.hasPose(getRow(index), slot);
+    }
+
+    float getX(int index, int slot)
+    {
+        return rows.getX(getRow(index), slot);
+    }
+
+    float getY(int index, int slot)
+    {
+        return rows.getY(getRow(index), slot);
+    }
+
+    float getAngle(int index, int slot)
+    {
+        return rows.getAngle(getRow(index), slot);
+    }
+
+    int getKeyframeCount()
+    {
+        return getSubtreeKeyframeCount(root);
+    }
+
+    int getKeyframeFrame(int index)
+    {
+        int frame = firstFrame;
+        int piece = root;
+        while (true)
+        {
+            int left = pieceLefts[piece];
+            int leftCount = getSubtreeKeyframeCount(left);
+            if (index < leftCount)
+            {
+                piece = left;
+                continue;
+            }
+
+            index -= leftCount;
+            frame += getSubtreeFrameCount(left);
+            int firstRow = pieceRows[piece];
+            if (index < pieceRowCounts[piece])
+            {
+                return frame + rowStarts[firstRow + index] - rowStarts[firstRow];
+            }
+            index -= pieceRowCounts[piece];
+            frame += getPieceFrameCount(piece);
+            piece = pieceRights[piece];
+        }
+    }
+
+    /**
+     * Returns the number of frames between the specified keyframe and the
+     * next one, or the end of the timeline for the last keyframe.
+     *
+     * @param index The index of the keyframe.
+     * @return The number of frames the keyframe lasts.
+     */
+    int getKeyframeLength(int index)
+    {
+        int row = getRow(index);
+        return rowStarts[row + 1] - rowStarts[row];
+    }
+
+    boolean isEmpty()
+    {
+        return (root == -1);
+    }
+
+    int getFrameCount()
+    {
+        return isEmpty() ? 0 : firstFrame + subtreeFrameCounts[root];
+    }
+
+    Interpolation getInterpolation()
+    {
+        return interpolation;
+    }
+
+    void setInterpolation(Interpolation value)
+    {
+        interpolation = value;
+    }
+
+}
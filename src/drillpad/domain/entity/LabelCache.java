@@ -0,0 +1,243 @@
+package drillpad.domain.entity;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the labels of the players already drawn with their shadow, at the
+ * resolution of the zoom level, so drawing a label is a plain copy instead of
+ * laying out and drawing its text twice.
+ * <p>
+ * The labels are shared by all the players and keyed by their text, the font
+ * of the {@link Graphics2D}, the zoom factor and the text antialiasing. The
+ * cache holds at most a fixed number of labels and discards the least
+ * recently used one first.
+ *
+ * @author Eric Perron
+ */
+final class LabelCache
+{
+    private static final int MAX_LABELS = 1024;
+
+    private final int fontStyle;
+    private final float fontSize;
+    private final LinkedHashMap<Key, Label> labels;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param fontStyle The style the font of the {@code Graphics2D} is derived
+     *                  to.
+     * @param fontSize  The size the font of the {@code Graphics2D} is derived
+     *                  to.
+     */
+    LabelCache(int fontStyle, float fontSize)
+    {
+        this.fontStyle = fontStyle;
+        this.fontSize = fontSize;
+
+        // NOTE(Eric): In access order, the eldest entry is the least recently
+        // used one.
+        labels = new LinkedHashMap<Key, Label>(MAX_LABELS * 4 / 3 + 1, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Label> eldest)
+            {
+                return (size() > MAX_LABELS);
+            }
+        };
+    }
+
+    /**
+     * Returns the label of the specified text for the specified
+     * {@link Graphics2D}, drawing it the first time it is needed.
+     *
+     * @param g2d  The {@code Graphics2D} the label will be drawn on.
+     * @param text The text of the label.
+     * @return The label.
+     */
+    Label get(Graphics2D g2d, String text)
+    {
+        AffineTransform transform = g2d.getTransform();
+        float scale = isZoomOnly(transform) ? (float) transform.getScaleX() : 1f;
+        Key key = new Key(text,
+                          g2d.getFont(),
+                          scale,
+                          g2d.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING));
+
+        Label label = labels.get(key);
+        if (label == null)
+        {
+            label = new Label(g2d, text, g2d.getFont().deriveFont(fontStyle, fontSize), scale);
+            labels.put(key, label);
+        }
+
+        return label;
+    }
+
+    private static boolean isZoomOnly(AffineTransform transform)
+    {
+        return ((transform.getType() & ~(AffineTransform.TYPE_TRANSLATION |
+                                         AffineTransform.TYPE_UNIFORM_SCALE)) == 0);
+    }
+
+    /**
+     * A text drawn in white over a black shadow offset by one pixel, with the
+     * metrics needed to place it.
+     */
+    static final class Label
+    {
+        private final String text;
+        private final Font font;
+        private final int width;
+        private final int height;
+        private final int descent;
+        private final BufferedImage image;
+        // NOTE(Eric): Where the start of the baseline falls in the image.
+        private final int originX;
+        private final int originY;
+
+        private Label(Graphics2D g2d, String text, Font font, float scale)
+        {
+            this.text = text;
+            this.font = font;
+
+            FontMetrics fontMetrics = g2d.getFontMetrics(font);
+            width = fontMetrics.stringWidth(text);
+            height = fontMetrics.getHeight();
+            descent = fontMetrics.getDescent();
+
+            // NOTE(Eric): The glyphs can overhang their advance, the image
+            // holds both, the shadow and a pixel of margin for antialiasing.
+            Rectangle2D bounds = font.createGlyphVector(g2d.getFontRenderContext(), text)
+                                     .getVisualBounds();
+            bounds.add(fontMetrics.getStringBounds(text, g2d));
+            bounds.add(bounds.getMaxX() + 1, bounds.getMaxY() + 1);
+
+            originX = 1 - (int) Math.floor(bounds.getMinX() * scale);
+            originY = 1 - (int) Math.floor(bounds.getMinY() * scale);
+            image = new BufferedImage(Math.max(1, originX + (int) Math.ceil(bounds.getMaxX() * scale) + 1),
+                                      Math.max(1, originY + (int) Math.ceil(bounds.getMaxY() * scale) + 1),
+                                      BufferedImage.TYPE_INT_ARGB_PRE);
+
+            Graphics2D imageG2d = image.createGraphics();
+            imageG2d.setRenderingHints(g2d.getRenderingHints());
+            imageG2d.translate(originX, originY);
+            imageG2d.scale(scale, scale);
+            imageG2d.setFont(font);
+
+            // TODO(Eric): Create global text color modifiable by user in Edit menu (like backgroundColor)
+            imageG2d.setColor(Color.BLACK);
+            imageG2d.drawString(text, 1, 1);
+
+            imageG2d.setColor(Color.WHITE);
+            imageG2d.drawString(text, 0, 0);
+            imageG2d.dispose();
+        }
+
+        /**
+         * Returns the advance of the text, like
+         * {@link FontMetrics#stringWidth(String)}.
+         */
+        int getWidth()
+        {
+            return width;
+        }
+
+        int getHeight()
+        {
+            return height;
+        }
+
+        int getDescent()
+        {
+            return descent;
+        }
+
+        /**
+         * Draws this label with the start of its baseline at the specified
+         * point, like {@link Graphics2D#drawString(String, int, int)}.
+         *
+         * @param g2d The {@link Graphics2D} to draw on.
+         * @param x   The x coordinate of the start of the baseline.
+         * @param y   The y coordinate of the baseline.
+         */
+        void draw(Graphics2D g2d, int x, int y)
+        {
+            AffineTransform transform = g2d.getTransform();
+
+            // NOTE(Eric): The image is made for the scene, which is only ever
+            // translated and zoomed. Anything else draws the text itself.
+            if (!isZoomOnly(transform))
+            {
+                Font previousFont = g2d.getFont();
+                g2d.setFont(font);
+                g2d.setColor(Color.BLACK);
+                g2d.drawString(text, x + 1, y + 1);
+                g2d.setColor(Color.WHITE);
+                g2d.drawString(text, x, y);
+                g2d.setFont(previousFont);
+                return;
+            }
+
+            Point2D origin = transform.transform(new Point2D.Float(x, y), null);
+
+            g2d.setTransform(new AffineTransform());
+            g2d.drawImage(image,
+                          (int) Math.round(origin.getX()) - originX,
+                          (int) Math.round(origin.getY()) - originY,
+                          null);
+            g2d.setTransform(transform);
+        }
+
+    }
+
+    private static final class Key
+    {
+        private final String text;
+        private final Font font;
+        private final float scale;
+        private final Object textAntialiasing;
+
+        Key(String text, Font font, float scale, Object textAntialiasing)
+        {
+            this.text = text;
+            this.font = font;
+            this.scale = scale;
+            this.textAntialiasing = textAntialiasing;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof Key))
+            {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return (text.equals(other.text) &&
+                    font.equals(other.font) &&
+                    scale == other.scale &&
+                    Objects.equals(textAntialiasing, other.textAntialiasing));
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(text, font, scale, textAntialiasing);
+        }
+
+    }
+
+}
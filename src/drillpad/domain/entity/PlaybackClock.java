@@ -0,0 +1,288 @@
+package drillpad.domain.entity;
+
+/**
+ * Keeps the playback of an {@link Animation} on wall-clock time.
+ * <p>
+ * Instead of advancing by one frame every time it is asked for the next
+ * frame, the clock computes which frame should be shown from the time elapsed
+ * since playback started, measured with {@link System#nanoTime()}. When the
+ * caller is late, frames are dropped to catch up. When it is early, the same
+ * frame is returned again and the caller can skip that update.
+ * <p>
+ * The speed can be any fraction of the normal speed. When it is slower than
+ * the normal speed, the clock also reports how far the playhead is between
+ * two frames so the caller can show in-between poses at the normal update
+ * rate instead of holding each frame.
+ * <p>
+ * The position of the clock keeps counting past the end of the animation.
+ * A {@link PlaybackRange} maps it to the frame shown, so looping does not
+ * require restarting the clock.
+ * <p>
+ * The clock is read by the {@link AnimationEngine} thread while the speed is
+ * changed from the event dispatch thread, so every method is synchronized.
+ *
+ * @author Eric Perron
+ */
+class PlaybackClock
+{
+    private static final double NANOSECONDS_PER_SECOND = 1000000000.0;
+
+    private int framesPerSecond;
+    private long anchorTime;
+    private double anchorFrame;
+    private float speed;
+    private PlaybackRange range;
+    private int lastPosition;
+    private int lastNextFrame;
+    private float lastFraction;
+    private long lastDueTime;
+    private long lagInNanoseconds;
+    private int droppedFrameCount;
+
+    PlaybackClock(int framesPerSecond)
+    {
+        this.framesPerSecond = framesPerSecond;
+        this.speed = 1f;
+        this.range = new PlaybackRange(PlaybackMode.ONCE, 0, 0);
+    }
+
+    /**
+     * Starts counting time from the specified frame.
+     *
+     * @param frame The frame shown when playback starts.
+     * @param speed The number of frames played for each frame of wall-clock
+     *              time. A negative value plays backward.
+     * @param range The range the frames are wrapped into.
+     */
+    synchronized void start(int frame, float speed, PlaybackRange range)
+    {
+        this.anchorTime = System.nanoTime();
+        this.anchorFrame = frame;
+        this.speed = speed;
+        this.range = range;
+        this.lastPosition = frame;
+        this.lastNextFrame = frame;
+        this.lastFraction = 0f;
+        this.lagInNanoseconds = 0;
+        this.droppedFrameCount = 0;
+    }
+
+    /**
+     * Moves the playhead to the specified frame without resetting the
+     * statistics.
+     *
+     * @param frame The frame shown now.
+     */
+    synchronized void seek(int frame)
+    {
+        anchorTime = System.nanoTime();
+        anchorFrame = frame;
+        lastPosition = frame;
+        lastNextFrame = frame;
+        lastFraction = 0f;
+    }
+
+    /**
+     * Changes the range the frames are wrapped into without changing the
+     * position of the playhead.
+     *
+     * @param value The new range.
+     */
+    synchronized void setRange(PlaybackRange value)
+    {
+        range = value;
+    }
+
+    /**
+     * Changes the playback speed without changing the position of the
+     * playhead.
+     *
+     * @param value The number of frames played for each frame of wall-clock
+     *              time. A negative value plays backward.
+     */
+    synchronized void setSpeed(float value)
+    {
+        long now = System.nanoTime();
+        anchorFrame = getPosition(now);
+        anchorTime = now;
+        speed = value;
+    }
+
+    /**
+     * Changes the frame rate. The playhead keeps its frame, so the caller
+     * must {@link #seek} if the frames were resampled.
+     *
+     * @param value The new number of frames per second.
+     */
+    synchronized void setFramesPerSecond(int value)
+    {
+        long now = System.nanoTime();
+        anchorFrame = getPosition(now);
+        anchorTime = now;
+        framesPerSecond = value;
+    }
+
+    /**
+     * Returns the frame that should be shown now.
+     * <p>
+     * Every frame skipped since the previous call is counted as dropped.
+     *
+     * @return The frame that should be shown now.
+     */
+    synchronized int getTargetFrame()
+    {
+        long now = System.nanoTime();
+        double exactPosition = getPosition(now);
+        int direction = (speed >= 0f) ? 1 : -1;
+        int position = (direction > 0) ?
+                       (int) Math.floor(exactPosition) :
+                       (int) Math.ceil(exactPosition);
+        lastFraction = (float) Math.abs(exactPosition - position);
+        lastNextFrame = range.getFrame(position + direction);
+
+        // NOTE(Eric): In slow motion, the pose shown is the one in between two
+        // frames at the current position, so it is due now.
+        if (isSubFrame())
+        {
+            lastDueTime = now;
+        }
+        else
+        {
+            double framesSinceDue = lastFraction / Math.abs(speed);
+            lastDueTime = now - (long) (framesSinceDue * NANOSECONDS_PER_SECOND / framesPerSecond);
+        }
+
+        // NOTE(Eric): Dropped frames are counted on the position, before it is
+        // wrapped, so wrapping around is not counted as a jump.
+        int skippedFrames = Math.abs(position - lastPosition) - (int) Math.ceil(Math.abs(speed));
+        if (position != lastPosition &&
+            skippedFrames > 0)
+        {
+            droppedFrameCount += skippedFrames;
+        }
+        lastPosition = position;
+
+        return range.getFrame(position);
+    }
+
+    /**
+     * Returns how far the playhead was past the frame returned by the last
+     * call to {@link #getTargetFrame()}, toward {@link #getNextFrame()}.
+     * <p>
+     * This is always {@code 0} unless the playback is slower than the normal
+     * speed, since faster playback already shows a new frame at every update.
+     *
+     * @return The fraction of a frame, from {@code 0} inclusively to
+     *         {@code 1} exclusively.
+     */
+    synchronized float getFrameFraction()
+    {
+        return isSubFrame() ? lastFraction : 0f;
+    }
+
+    /**
+     * Returns the frame following the one returned by the last call to
+     * {@link #getTargetFrame()} in the playing direction, after wrapping.
+     *
+     * @return The next frame.
+     */
+    synchronized int getNextFrame()
+    {
+        return lastNextFrame;
+    }
+
+    /**
+     * Returns the time left before the next update is due. This is the next
+     * frame, or the next in-between pose when the playback is slower than the
+     * normal speed.
+     *
+     * @return The time left in nanoseconds.
+     */
+    synchronized long getNanosUntilNextUpdate()
+    {
+        double position = getPosition(System.nanoTime());
+        double framesLeft = (speed >= 0f) ?
+                            Math.floor(position) + 1 - position :
+                            position - (Math.ceil(position) - 1);
+        double framesPerSecondPlayed = Math.max(Math.abs(speed), 0.001) * framesPerSecond;
+        long nanosUntilNextFrame = (long) (framesLeft * NANOSECONDS_PER_SECOND / framesPerSecondPlayed);
+        if (isSubFrame())
+        {
+            return Math.min(nanosUntilNextFrame, (long) (NANOSECONDS_PER_SECOND / framesPerSecond));
+        }
+
+        return nanosUntilNextFrame;
+    }
+
+    /**
+     * Returns the time at which the specified frame is due, at the current
+     * speed. The frame is not wrapped, this is only meant for recording.
+     *
+     * @param frame The frame.
+     * @return The time, from {@link System#nanoTime()}.
+     */
+    synchronized long getFrameTime(int frame)
+    {
+        double elapsedSeconds = (frame - anchorFrame) / ((double) framesPerSecond * speed);
+        return anchorTime + (long) (elapsedSeconds * NANOSECONDS_PER_SECOND);
+    }
+
+    private double getPosition(long now)
+    {
+        double elapsedSeconds = (now - anchorTime) / NANOSECONDS_PER_SECOND;
+        return anchorFrame + elapsedSeconds * framesPerSecond * speed;
+    }
+
+    private boolean isSubFrame()
+    {
+        return (Math.abs(speed) < 1f);
+    }
+
+    /**
+     * Returns the time at which the frame returned by the last call to
+     * {@link #getTargetFrame()} was due, or the pose in between two frames
+     * when the playback is slower than the normal speed.
+     *
+     * @return The time, from {@link System#nanoTime()}.
+     */
+    synchronized long getDueTime()
+    {
+        return lastDueTime;
+    }
+
+    /**
+     * Records that a frame is being shown, to measure how late it is. This is
+     * called by the event dispatch thread when it applies the frame, so the
+     * lag includes the time the frame waited for it.
+     *
+     * @param dueTime The time at which the frame was due, from
+     *                {@link #getDueTime()}.
+     */
+    synchronized void framePresented(long dueTime)
+    {
+        lagInNanoseconds = Math.max(System.nanoTime() - dueTime, 0);
+    }
+
+    /**
+     * Returns how late the last frame shown was, from the time it was due to
+     * the time the event dispatch thread applied it, in milliseconds.
+     *
+     * @return The lag in milliseconds.
+     */
+    synchronized float getLagInMillis()
+    {
+        return lagInNanoseconds / 1000000f;
+    }
+
+    /**
+     * Returns the number of frames skipped since playback started to stay on
+     * wall-clock time.
+     *
+     * @return The number of dropped frames.
+     */
+    synchronized int getDroppedFrameCount()
+    {
+        return droppedFrameCount;
+    }
+
+}
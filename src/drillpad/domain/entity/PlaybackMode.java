@@ -0,0 +1,25 @@
+package drillpad.domain.entity;
+
+/**
+ * What an {@link Animation} does when playback reaches the end of its
+ * playback range.
+ *
+ * @author Eric Perron
+ */
+public enum PlaybackMode
+{
+    /**
+     * Stops at the end of the animation and goes back to its start.
+     */
+    ONCE,
+    /**
+     * Starts over from the start of the playback range, without stopping.
+     */
+    LOOP,
+    /**
+     * Plays the playback range backward, then forward again, without
+     * stopping.
+     */
+    PING_PONG;
+
+}
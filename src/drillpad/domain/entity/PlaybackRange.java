@@ -0,0 +1,70 @@
+package drillpad.domain.entity;
+
+/**
+ * Maps the position of the {@link PlaybackClock}, which keeps counting past
+ * the end of the animation, to the frame shown in a given
+ * {@link PlaybackMode}.
+ * <p>
+ * The range is computed once when playback starts or when the mode or the
+ * range change, so wrapping around is a modulo instead of a stop and a
+ * restart.
+ *
+ * @author Eric Perron
+ */
+final class PlaybackRange
+{
+    private final PlaybackMode mode;
+    private final int start;
+    private final int length;
+    private final int period;
+
+    /**
+     * Creates a range covering the frames from {@code start} inclusively to
+     * {@code end} exclusively.
+     *
+     * @param mode  The playback mode. In {@link PlaybackMode#ONCE} mode,
+     *              frames are never wrapped.
+     * @param start The first frame of the range.
+     * @param end   The frame after the last frame of the range.
+     */
+    PlaybackRange(PlaybackMode mode, int start, int end)
+    {
+        this.mode = mode;
+        this.start = start;
+        this.length = Math.max(end - start, 1);
+
+        // NOTE(Eric): In ping-pong, the first and last frames are not repeated
+        // when the direction changes.
+        this.period = (mode == PlaybackMode.PING_PONG) ?
+                      Math.max(2 * (length - 1), 1) :
+                      length;
+    }
+
+    /**
+     * Returns the frame shown at the specified position of the clock.
+     *
+     * @param position The position of the clock, in frames.
+     * @return The frame to show.
+     */
+    int getFrame(int position)
+    {
+        if (mode == PlaybackMode.ONCE)
+        {
+            return position;
+        }
+
+        int offset = Math.floorMod(position - start, period);
+        if (offset >= length)
+        {
+            offset = period - offset;
+        }
+
+        return start + offset;
+    }
+
+    boolean isWrapping()
+    {
+        return (mode != PlaybackMode.ONCE);
+    }
+
+}
@@ -1,9 +1,11 @@
 package drillpad.domain.entity;
 
-import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.io.Serializable;
@@ -16,6 +18,10 @@ import drillpad.domain.SceneController;
  */
 public class Player extends Entity implements Serializable
 {
+    private static final float LABEL_FONT_SIZE = 24f;
+    // TODO(Eric): global font ? font size and style determined by the user ?
+    private static final LabelCache LABELS = new LabelCache(Font.BOLD, LABEL_FONT_SIZE);
+
     private Role role;
     private String name;
     private boolean isRoleVisible;
@@ -32,53 +38,78 @@ public class Player extends Entity implements Serializable
     // principe de la séparation du UI et du domain, mais bon on a pas eu de
     // commentaires des correcteurs à ce sujet.
     @Override
-    public void draw(Graphics2D g2d)
+    void draw(Graphics2D g2d, float x, float y, float angleInRadians)
     {
         // Draw the entity
-        super.draw(g2d);
+        super.draw(g2d, x, y, angleInRadians);
 
         // Draw the player's role
         if (SceneController.getInstance().isPlayerRolesVisible() &&
             isRoleVisible)
         {
-            // TODO(Eric): global font ? font size and style determined by the user ?
-            g2d.setFont(g2d.getFont().deriveFont(Font.BOLD, 24f));
             // TODO(Eric): FontUtils to center the text ?
-            FontMetrics fontMetrics = g2d.getFontMetrics();
-            int halfStringWidth = fontMetrics.stringWidth(role.getAbbreviation()) / 2;
-            int halfStringHeight = (fontMetrics.getHeight() / 2) - fontMetrics.getDescent();
-            int x = (int) getPosition().x - halfStringWidth;
-            int y = (int) getPosition().y + halfStringHeight;
-
-            // TODO(Eric): Create global text color modifiable by user in Edit menu (like backgroundColor)
-            g2d.setColor(Color.BLACK);
-            g2d.drawString(role.getAbbreviation(), x + 1, y + 1);
-
-            g2d.setColor(Color.WHITE);
-            g2d.drawString(role.getAbbreviation(), x, y);
-
+            LabelCache.Label label = LABELS.get(g2d, role.getAbbreviation());
+            int halfStringWidth = label.getWidth() / 2;
+            int halfStringHeight = (label.getHeight() / 2) - label.getDescent();
+            label.draw(g2d, (int) x - halfStringWidth, (int) y + halfStringHeight);
         }
 
         // Draw the player's name
         if (SceneController.getInstance().isPlayerNamesVisible() &&
-            isNameVisible)
+            isNameVisible &&
+            name != null)
         {
-            // TODO(Eric): global font ? font size and style determined by the user ?
-            g2d.setFont(g2d.getFont().deriveFont(Font.BOLD, 24f));
             // TODO(Eric): FontUtils to center the text ?
-            FontMetrics fontMetrics = g2d.getFontMetrics();
-            int halfStringWidth = fontMetrics.stringWidth(name) / 2;
-            int stringHeight = fontMetrics.getHeight() - fontMetrics.getDescent();
-            int x = (int) getPosition().x - halfStringWidth;
-            int y = (int) getPosition().y + (getHeight() / 2) + stringHeight;
-
-            // TODO(Eric): Create global text color modifiable by user in Edit menu (like backgroundColor)
-            g2d.setColor(Color.BLACK);
-            g2d.drawString(name, x + 1, y + 1);
-
-            g2d.setColor(Color.WHITE);
-            g2d.drawString(name, x, y);
+            LabelCache.Label label = LABELS.get(g2d, name);
+            int halfStringWidth = label.getWidth() / 2;
+            int stringHeight = label.getHeight() - label.getDescent();
+            label.draw(g2d,
+                       (int) x - halfStringWidth,
+                       (int) y + (getHeight() / 2) + stringHeight);
+        }
+    }
+
+    @Override
+    public Rectangle getDrawingBounds(FontMetrics fontMetrics)
+    {
+        Rectangle bounds = super.getDrawingBounds(fontMetrics);
+        Font font = fontMetrics.getFont().deriveFont(Font.BOLD, LABEL_FONT_SIZE);
+        FontRenderContext fontRenderContext = fontMetrics.getFontRenderContext();
+        int x = (int) getPosition().x;
+        int y = (int) getPosition().y;
+
+        // NOTE(Eric): The labels are centered the same way as in draw(), with
+        // one more pixel for their shadow.
+        if (SceneController.getInstance().isPlayerRolesVisible() &&
+            isRoleVisible)
+        {
+            bounds.add(getLabelBounds(role.getAbbreviation(), font, fontRenderContext, x, y));
+        }
+
+        if (SceneController.getInstance().isPlayerNamesVisible() &&
+            isNameVisible &&
+            name != null)
+        {
+            LineMetrics lineMetrics = font.getLineMetrics(name, fontRenderContext);
+            int nameY = y + (getHeight() / 2) + (int) Math.ceil(lineMetrics.getHeight() / 2);
+            bounds.add(getLabelBounds(name, font, fontRenderContext, x, nameY));
         }
+
+        return bounds;
+    }
+
+    private static Rectangle getLabelBounds(String text, Font font,
+                                            FontRenderContext fontRenderContext,
+                                            int centerX, int centerY)
+    {
+        Rectangle2D textBounds = font.getStringBounds(text, fontRenderContext);
+        int halfWidth = (int) Math.ceil(textBounds.getWidth() / 2) + 2;
+        int halfHeight = (int) Math.ceil(textBounds.getHeight() / 2) + 2;
+
+        return new Rectangle(centerX - halfWidth,
+                             centerY - halfHeight,
+                             halfWidth * 2 + 1,
+                             halfHeight * 2 + 1);
     }
 
     public boolean showRotationImage(Point2D.Float mousePosition)
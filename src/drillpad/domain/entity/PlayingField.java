@@ -1,5 +1,6 @@
 package drillpad.domain.entity;
 
+import java.awt.Graphics2D;
 import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -7,7 +8,10 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
 
+import drillpad.general.utility.ImageUtilities;
 import drillpad.general.utility.SerializationUtilities;
 
 /**
@@ -20,6 +24,14 @@ public class PlayingField implements Serializable
     private float height;
     private transient BufferedImage image;
 
+    // NOTE(Eric): Very large images are kept in tiles outside of the heap,
+    // image then being their reduced preview.
+    private TiledImage tiledImage;
+
+    // NOTE(Eric): Level n is the image halved n times. The levels are built
+    // on first use and level 0 is the image itself.
+    private transient List<BufferedImage> mipLevels;
+
     private final DecimalFormat decimalFormat = new DecimalFormat("#0.00");
 
     /**
@@ -31,7 +43,7 @@ public class PlayingField implements Serializable
      */
     public PlayingField(BufferedImage image, float width, float height)
     {
-        this.image = image;
+        setImage(image);
         this.width = width;
         this.height = height;
     }
@@ -39,21 +51,32 @@ public class PlayingField implements Serializable
     private void writeObject(ObjectOutputStream out) throws IOException
     {
         out.defaultWriteObject();
-        SerializationUtilities.serializeBufferedImage(out, image);
+        SerializationUtilities.serializeBufferedImage(out, (tiledImage == null) ? image : null);
     }
 
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
     {
         in.defaultReadObject();
         image = SerializationUtilities.deserializeBufferedImage(in);
+        if (tiledImage != null)
+        {
+            image = tiledImage.getPreview();
+        }
+    }
+
+    private void setImage(BufferedImage newImage)
+    {
+        tiledImage = TiledImage.of(newImage);
+        image = (tiledImage == null) ? newImage : tiledImage.getPreview();
+        mipLevels = null;
     }
 
     String getMousePositionAsString(Point2D.Float mousePosition)
     {
         // Conversion to meters
         Point2D.Float positionInMeters =
-                new Point2D.Float((mousePosition.x / (float) image.getWidth()) * width,
-                                  (mousePosition.y / (float) image.getHeight()) * height);
+                new Point2D.Float((mousePosition.x / (float) getImageWidth()) * width,
+                                  (mousePosition.y / (float) getImageHeight()) * height);
 
         // NOTE: We only support meters as units for the playingField, so it is
         // safe to put it directly in the returned string.
@@ -61,11 +84,91 @@ public class PlayingField implements Serializable
                 decimalFormat.format(positionInMeters.y) + " m");
     }
 
+    /**
+     * Returns the image of this {@code PlayingField}, or its reduced preview
+     * if it is tiled. The size of the playing field in pixels is given by
+     * {@link #getImageWidth()} and {@link #getImageHeight()}.
+     */
     BufferedImage getImage()
     {
         return image;
     }
 
+    int getImageWidth()
+    {
+        return (tiledImage == null) ? image.getWidth() : tiledImage.getWidth();
+    }
+
+    int getImageHeight()
+    {
+        return (tiledImage == null) ? image.getHeight() : tiledImage.getHeight();
+    }
+
+    /**
+     * Returns whether drawing at the specified zoom factor needs the tiles,
+     * the preview of a tiled image being too small.
+     *
+     * @param zoomFactor The zoom factor the image will be drawn at.
+     * @return {@code true} to draw with {@link #drawTiles(Graphics2D)},
+     *         {@code false} to draw {@link #getImage(float)}.
+     */
+    boolean isTiled(float zoomFactor)
+    {
+        return (tiledImage != null &&
+                zoomFactor > tiledImage.getPreviewScale());
+    }
+
+    /**
+     * Draws the visible tiles of a tiled image, from the level of tiles
+     * matching the zoom factor.
+     *
+     * @param g2d The {@link Graphics2D} to draw on, scaled by the zoom factor.
+     */
+    void drawTiles(Graphics2D g2d)
+    {
+        tiledImage.draw(g2d);
+    }
+
+    /**
+     * Returns the image to draw this {@code PlayingField} scaled by the
+     * specified zoom factor. This is the smallest level of the mip pyramid
+     * that is still at least as large as the zoomed image, so it is never
+     * reduced by half or more when drawn.
+     *
+     * @param zoomFactor The zoom factor the image will be drawn at.
+     * @return The image, or the original image when zooming in. For a tiled
+     *         image, the levels start at its preview.
+     */
+    BufferedImage getImage(float zoomFactor)
+    {
+        if (image == null)
+        {
+            return null;
+        }
+
+        if (mipLevels == null)
+        {
+            mipLevels = new ArrayList<>();
+            mipLevels.add(image);
+        }
+
+        int level = 0;
+        float levelScale = (float) image.getWidth() / (float) getImageWidth();
+        while (levelScale / 2f >= zoomFactor &&
+               (mipLevels.get(level).getWidth() > 1 ||
+                mipLevels.get(level).getHeight() > 1))
+        {
+            ++level;
+            levelScale /= 2f;
+            if (level == mipLevels.size())
+            {
+                mipLevels.add(ImageUtilities.getHalvedImage(mipLevels.get(level - 1)));
+            }
+        }
+
+        return mipLevels.get(level);
+    }
+
     float getWidth()
     {
         return width;
@@ -78,7 +181,7 @@ public class PlayingField implements Serializable
 
     void edit(BufferedImage newPlayingFieldImage, float newWidth, float newHeight)
     {
-        image = newPlayingFieldImage;
+        setImage(newPlayingFieldImage);
         width = newWidth;
         height = newHeight;
     }
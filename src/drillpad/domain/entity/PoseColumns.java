@@ -0,0 +1,245 @@
+package drillpad.domain.entity;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Stores the x, y and angle of a sequence of poses in parallel columns,
+ * either as floats or quantized by a {@link PoseQuantizer}.
+ *
+ * @author Eric Perron
+ */
+abstract class PoseColumns
+{
+    /**
+     * Creates empty columns.
+     *
+     * @param quantizer The quantizer used to store the poses, or {@code null}
+     *                  to store them at full precision.
+     * @param capacity  The number of poses that can be stored before growing.
+     * @return The new columns.
+     */
+    static PoseColumns create(PoseQuantizer quantizer, int capacity)
+    {
+        return (quantizer == null) ?
+               new Full(capacity) :
+               new Quantized(quantizer, capacity);
+    }
+
+    abstract int getCapacity();
+
+    abstract void grow(int capacity);
+
+    /**
+     * Returns a copy of these columns with the specified capacity.
+     */
+    abstract PoseColumns copy(int capacity);
+
+    abstract float getX(int index);
+
+    abstract float getY(int index);
+
+    abstract float getAngle(int index);
+
+    abstract void set(int index, float x, float y, float angle);
+
+    /**
+     * Copies {@code length} poses starting at {@code source} to
+     * {@code destination}. The ranges may overlap.
+     */
+    abstract void move(int source, int destination, int length);
+
+    abstract void write(DataOutput out, int index) throws IOException;
+
+    abstract void read(DataInput in, int index) throws IOException;
+
+    private static final class Full extends PoseColumns
+    {
+        private float[] xs;
+        private float[] ys;
+        private float[] angles;
+
+        Full(int capacity)
+        {
+            xs = new float[capacity];
+            ys = new float[capacity];
+            angles = new float[capacity];
+        }
+
+        private Full(Full other, int capacity)
+        {
+            xs = Arrays.copyOf(other.xs, capacity);
+            ys = Arrays.copyOf(other.ys, capacity);
+            angles = Arrays.copyOf(other.angles, capacity);
+        }
+
+        @Override
+        int getCapacity()
+        {
+            return xs.length;
+        }
+
+        @Override
+        void grow(int capacity)
+        {
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            angles = Arrays.copyOf(angles, capacity);
+        }
+
+        @Override
+        PoseColumns copy(int capacity)
+        {
+            return new Full(this, capacity);
+        }
+
+        @Override
+        float getX(int index)
+        {
+            return xs[index];
+        }
+
+        @Override
+        float getY(int index)
+        {
+            return ys[index];
+        }
+
+        @Override
+        float getAngle(int index)
+        {
+            return angles[index];
+        }
+
+        @Override
+        void set(int index, float x, float y, float angle)
+        {
+            xs[index] = x;
+            ys[index] = y;
+            angles[index] = angle;
+        }
+
+        @Override
+        void move(int source, int destination, int length)
+        {
+            System.arraycopy(xs, source, xs, destination, length);
+            System.arraycopy(ys, source, ys, destination, length);
+            System.arraycopy(angles, source, angles, destination, length);
+        }
+
+        @Override
+        void write(DataOutput out, int index) throws IOException
+        {
+            out.writeFloat(xs[index]);
+            out.writeFloat(ys[index]);
+            out.writeFloat(angles[index]);
+        }
+
+        @Override
+        void read(DataInput in, int index) throws IOException
+        {
+            xs[index] = in.readFloat();
+            ys[index] = in.readFloat();
+            angles[index] = in.readFloat();
+        }
+
+    }
+
+    private static final class Quantized extends PoseColumns
+    {
+        private final PoseQuantizer quantizer;
+        private short[] xs;
+        private short[] ys;
+        private short[] angles;
+
+        Quantized(PoseQuantizer quantizer, int capacity)
+        {
+            this.quantizer = quantizer;
+            xs = new short[capacity];
+            ys = new short[capacity];
+            angles = new short[capacity];
+        }
+
+        private Quantized(Quantized other, int capacity)
+        {
+            quantizer = other.quantizer;
+            xs = Arrays.copyOf(other.xs, capacity);
+            ys = Arrays.copyOf(other.ys, capacity);
+            angles = Arrays.copyOf(other.angles, capacity);
+        }
+
+        @Override
+        int getCapacity()
+        {
+            return xs.length;
+        }
+
+        @Override
+        void grow(int capacity)
+        {
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            angles = Arrays.copyOf(angles, capacity);
+        }
+
+        @Override
+        PoseColumns copy(int capacity)
+        {
+            return new Quantized(this, capacity);
+        }
+
+        @Override
+        float getX(int index)
+        {
+            return quantizer.decodeX(xs[index]);
+        }
+
+        @Override
+        float getY(int index)
+        {
+            return quantizer.decodeY(ys[index]);
+        }
+
+        @Override
+        float getAngle(int index)
+        {
+            return quantizer.decodeAngle(angles[index]);
+        }
+
+        @Override
+        void set(int index, float x, float y, float angle)
+        {
+            xs[index] = quantizer.encodeX(x);
+            ys[index] = quantizer.encodeY(y);
+            angles[index] = quantizer.encodeAngle(angle);
+        }
+
+        @Override
+        void move(int source, int destination, int length)
+        {
+            System.arraycopy(xs, source, xs, destination, length);
+            System.arraycopy(ys, source, ys, destination, length);
+            System.arraycopy(angles, source, angles, destination, length);
+        }
+
+        @Override
+        void write(DataOutput out, int index) throws IOException
+        {
+            out.writeShort(xs[index]);
+            out.writeShort(ys[index]);
+            out.writeShort(angles[index]);
+        }
+
+        @Override
+        void read(DataInput in, int index) throws IOException
+        {
+            xs[index] = in.readShort();
+            ys[index] = in.readShort();
+            angles[index] = in.readShort();
+        }
+
+    }
+
+}
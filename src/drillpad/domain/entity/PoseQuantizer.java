@@ -0,0 +1,102 @@
+package drillpad.domain.entity;
+
+import java.io.Serializable;
+
+import drillpad.general.utility.MathUtilities;
+
+/**
+ * Encodes the poses of an {@link Entity} on 16 bits per value.
+ * <p>
+ * Entities never leave the playing field, so x and y are stored as unsigned
+ * fixed-point fractions of the width and height of the playing field image.
+ * On a 4000 pixels wide image, a step is 0.06 pixel. The angle is stored as a
+ * signed fraction of half a turn, a step being 0.0055 degree. A pose then
+ * takes 6 bytes instead of 12.
+ *
+ * @author Eric Perron
+ */
+final class PoseQuantizer implements Serializable
+{
+    private static final float MAX_UNSIGNED_SHORT = 65535f;
+    private static final float HALF_TURN_STEPS = 32768f;
+
+    private final float width;
+    private final float height;
+
+    /**
+     * Creates a quantizer for a playing field of the specified size.
+     *
+     * @param width  The width of the playing field image, in pixels.
+     * @param height The height of the playing field image, in pixels.
+     */
+    PoseQuantizer(float width, float height)
+    {
+        this.width = Math.max(width, 1f);
+        this.height = Math.max(height, 1f);
+    }
+
+    short encodeX(float x)
+    {
+        return encodeUnsigned(x, width);
+    }
+
+    short encodeY(float y)
+    {
+        return encodeUnsigned(y, height);
+    }
+
+    short encodeAngle(float angle)
+    {
+        // NOTE(Eric): A half turn is 32768 steps and does not fit in a short,
+        // but it wraps to -32768 which is the same angle.
+        return (short) Math.round(MathUtilities.wrapAngle(angle) / MathUtilities.PI * HALF_TURN_STEPS);
+    }
+
+    float decodeX(short value)
+    {
+        return decodeUnsigned(value, width);
+    }
+
+    float decodeY(short value)
+    {
+        return decodeUnsigned(value, height);
+    }
+
+    float decodeAngle(short value)
+    {
+        return value * MathUtilities.PI / HALF_TURN_STEPS;
+    }
+
+    /**
+     * Returns the value the specified x coordinate has once encoded and
+     * decoded.
+     *
+     * @param x The x coordinate.
+     * @return The closest x coordinate that can be stored.
+     */
+    float roundX(float x)
+    {
+        return decodeX(encodeX(x));
+    }
+
+    float roundY(float y)
+    {
+        return decodeY(encodeY(y));
+    }
+
+    float roundAngle(float angle)
+    {
+        return decodeAngle(encodeAngle(angle));
+    }
+
+    private static short encodeUnsigned(float value, float extent)
+    {
+        return (short) Math.round(MathUtilities.clamp(value, 0f, extent) / extent * MAX_UNSIGNED_SHORT);
+    }
+
+    private static float decodeUnsigned(short value, float extent)
+    {
+        return (value & 0xFFFF) / MAX_UNSIGNED_SHORT * extent;
+    }
+
+}
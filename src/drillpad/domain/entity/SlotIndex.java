@@ -0,0 +1,70 @@
+package drillpad.domain.entity;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the slot of an {@link Entity} in a track from its ID, with an array
+ * indexed by ID instead of a hash map keyed by the {@code Entity}.
+ * <p>
+ * The index is not saved, the tracks rebuild it from their list of entities.
+ *
+ * @author Eric Perron
+ * @see EntityRegistry
+ */
+final class SlotIndex
+{
+    private int[] slots;
+
+    /**
+     * Creates an index of the specified entities, the slot of each one being
+     * its position in the list.
+     *
+     * @param slotEntities The entities of the track, all registered.
+     */
+    SlotIndex(List<Entity> slotEntities)
+    {
+        slots = new int[0];
+        for (int slot = 0; slot < slotEntities.size(); ++slot)
+        {
+            put(slotEntities.get(slot), slot);
+        }
+    }
+
+    /**
+     * Returns the slot of the specified {@link Entity}.
+     *
+     * @param entity The {@code Entity} whose slot is requested.
+     * @return The slot of the {@code Entity} or {@code -1} if it has none.
+     */
+    int get(Entity entity)
+    {
+        int id = entity.getId();
+        return (id >= 0 && id < slots.length) ? slots[id] : -1;
+    }
+
+    /**
+     * Sets the slot of the specified {@link Entity}.
+     *
+     * @param entity The {@code Entity}, which must have been registered in an
+     *               {@link EntityRegistry}.
+     * @param slot   The slot of the {@code Entity}.
+     */
+    void put(Entity entity, int slot)
+    {
+        int id = entity.getId();
+        if (id < 0)
+        {
+            throw new IllegalArgumentException("The entity is not registered");
+        }
+
+        if (id >= slots.length)
+        {
+            int length = slots.length;
+            slots = Arrays.copyOf(slots, Math.max(id + 1, length * 2));
+            Arrays.fill(slots, length, slots.length, -1);
+        }
+        slots[id] = slot;
+    }
+
+}
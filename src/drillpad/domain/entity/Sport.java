@@ -13,6 +13,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 
+import drillpad.domain.event.AnimationBakeObserver;
 import drillpad.domain.event.AnimationPropertiesChangedObserver;
 
 /**
@@ -314,11 +315,21 @@ public class Sport implements Serializable
         currentStrategy.skipBackAnimation();
     }
 
+    public boolean bakeAnimation(AnimationBakeObserver observer)
+    {
+        return currentStrategy.bakeAnimation(observer);
+    }
+
     public void drawPreviousAnimationImages(Graphics2D g2d)
     {
         currentStrategy.drawPreviousAnimationImages(g2d);
     }
 
+    public void drawCurrentStrategyPlayingFieldTiles(Graphics2D g2d)
+    {
+        currentStrategy.drawPlayingFieldTiles(g2d);
+    }
+
     public void drawPositionsAndArrows(Graphics2D g2d)
     {
         currentStrategy.drawPositionsAndArrows(g2d);
@@ -527,8 +538,8 @@ public class Sport implements Serializable
         // with the sport playingField when there is none.
         if (currentStrategy != null)
         {
-            result.width = currentStrategy.getPlayingFieldImage().getWidth();
-            result.height = currentStrategy.getPlayingFieldImage().getHeight();
+            result.width = currentStrategy.getPlayingFieldImageWidth();
+            result.height = currentStrategy.getPlayingFieldImageHeight();
         }
 
         return result;
@@ -556,6 +567,44 @@ public class Sport implements Serializable
         return result;
     }
 
+    /**
+     * Returns the level of the mip pyramid of the current strategy's playing
+     * field image to draw at the specified zoom factor.
+     *
+     * @param zoomFactor The zoom factor the image will be drawn at.
+     * @return The image to draw.
+     * @see PlayingField#getImage(float)
+     */
+    public BufferedImage getCurrentStrategyPlayingFieldImage(float zoomFactor)
+    {
+        BufferedImage result;
+        if (currentStrategy == null)
+        {
+            result = getCurrentStrategyPlayingFieldImage();
+        }
+        else
+        {
+            result = currentStrategy.getPlayingFieldImage(zoomFactor);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns whether the playing field of the current strategy is drawn
+     * from its full resolution tiles at the specified zoom factor.
+     *
+     * @param zoomFactor The zoom factor the image will be drawn at.
+     * @return {@code true} to draw it with
+     *         {@link #drawCurrentStrategyPlayingFieldTiles(Graphics2D)}.
+     * @see PlayingField#isTiled(float)
+     */
+    public boolean isCurrentStrategyPlayingFieldTiled(float zoomFactor)
+    {
+        return (currentStrategy != null &&
+                currentStrategy.isPlayingFieldTiled(zoomFactor));
+    }
+
     public BufferedImage getCurrentStrategyPreviewImage()
     {
         return currentStrategy.getStrategyPreviewImage();
@@ -613,6 +662,51 @@ public class Sport implements Serializable
         }
     }
 
+    public float getAnimationLagInMillis()
+    {
+        return currentStrategy.getAnimationLagInMillis();
+    }
+
+    public int getAnimationDroppedFrameCount()
+    {
+        return currentStrategy.getAnimationDroppedFrameCount();
+    }
+
+    public Interpolation getAnimationInterpolation()
+    {
+        return currentStrategy.getAnimationInterpolation();
+    }
+
+    public int getAnimationFramesPerSecond()
+    {
+        return currentStrategy.getAnimationFramesPerSecond();
+    }
+
+    public float getAnimationPlaybackSpeed()
+    {
+        return currentStrategy.getAnimationPlaybackSpeed();
+    }
+
+    public PlaybackMode getAnimationPlaybackMode()
+    {
+        return currentStrategy.getAnimationPlaybackMode();
+    }
+
+    public boolean isAnimationPoseQuantized()
+    {
+        return currentStrategy.isAnimationPoseQuantized();
+    }
+
+    public float getAnimationSimplificationTolerance()
+    {
+        return currentStrategy.getAnimationSimplificationTolerance();
+    }
+
+    public boolean isAnimationReversed()
+    {
+        return currentStrategy.isAnimationReversed();
+    }
+
     public boolean isRecording()
     {
         return currentStrategy.isRecording();
@@ -653,9 +747,74 @@ public class Sport implements Serializable
         currentStrategy.setCurrentFrame(frame);
     }
 
-    public void setAnimationSelectedEntity(Entity value)
+    public void captureAnimationInput()
+    {
+        currentStrategy.captureAnimationInput();
+    }
+
+    public void setAnimationSelectedEntities(List<Entity> value)
+    {
+        currentStrategy.setAnimationSelectedEntities(value);
+    }
+
+    public void setAnimationInterpolation(Interpolation value)
+    {
+        currentStrategy.setAnimationInterpolation(value);
+    }
+
+    public void setAnimationSimplificationTolerances(float distance, float angleInRadians)
+    {
+        currentStrategy.setAnimationSimplificationTolerances(distance, angleInRadians);
+    }
+
+    public void setAnimationFramesPerSecond(int value)
+    {
+        currentStrategy.setAnimationFramesPerSecond(value);
+    }
+
+    public void setAnimationPlaybackSpeed(float value)
+    {
+        currentStrategy.setAnimationPlaybackSpeed(value);
+    }
+
+    public void setAnimationPlaybackMode(PlaybackMode value)
+    {
+        currentStrategy.setAnimationPlaybackMode(value);
+    }
+
+    public void setAnimationReversed(boolean value)
+    {
+        currentStrategy.setAnimationReversed(value);
+    }
+
+    public void setAnimationPoseQuantized(boolean value)
+    {
+        currentStrategy.setAnimationPoseQuantized(value);
+    }
+
+    public void setAnimationPlaybackRangeStart()
+    {
+        currentStrategy.setAnimationPlaybackRangeStart();
+    }
+
+    public void setAnimationPlaybackRangeEnd()
+    {
+        currentStrategy.setAnimationPlaybackRangeEnd();
+    }
+
+    public void clearAnimationPlaybackRange()
+    {
+        currentStrategy.clearAnimationPlaybackRange();
+    }
+
+    public void insertAnimationTime()
+    {
+        currentStrategy.insertAnimationTime();
+    }
+
+    public void deleteAnimationPlaybackRange()
     {
-        currentStrategy.setAnimationSelectedEntity(value);
+        currentStrategy.deleteAnimationPlaybackRange();
     }
 
 }
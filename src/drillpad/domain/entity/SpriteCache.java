@@ -0,0 +1,211 @@
+package drillpad.domain.entity;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import drillpad.general.utility.MathUtilities;
+
+/**
+ * Keeps the image of an {@link EntityType} already scaled to the zoom level
+ * and rotated, so drawing an {@link Entity} is a plain copy instead of a
+ * rescale and a rotation of the source image.
+ * <p>
+ * The angles are rounded to 256 steps per turn, about 1.4 degree. Only the
+ * sprites of the last zoom level are kept, and the sprites of every cache
+ * together hold at most {@link #MAX_SPRITE_PIXELS} pixels, the least recently
+ * used cache giving up its least recently used sprite first. A cache belongs
+ * to its {@code EntityType}, which clears and replaces it when it is edited.
+ *
+ * @author Eric Perron
+ */
+final class SpriteCache
+{
+    private static final int ANGLE_STEPS = 256;
+    private static final long MAX_SPRITE_PIXELS = 4096L * 4096L;
+
+    // NOTE(Eric): Every cache holding sprites, the least recently used one
+    // first. The sprites of a large zoom take a lot of memory, so the limit is
+    // shared by all the entity types instead of applying to each one.
+    private static final LinkedHashMap<SpriteCache, Boolean> usedCaches =
+        new LinkedHashMap<>(16, 0.75f, true);
+    private static long totalPixels = 0;
+
+    private final BufferedImage image;
+    private final int width;
+    private final int height;
+    private final LinkedHashMap<Integer, BufferedImage> sprites;
+    private float scale;
+    private long pixels;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param image  The image of the {@code EntityType}.
+     * @param width  The width the image is drawn at, before zooming.
+     * @param height The height the image is drawn at, before zooming.
+     */
+    SpriteCache(BufferedImage image, int width, int height)
+    {
+        this.image = image;
+        this.width = width;
+        this.height = height;
+
+        // NOTE(Eric): In access order, the eldest entry is the least recently
+        // used one.
+        sprites = new LinkedHashMap<>(16, 0.75f, true);
+        scale = 0f;
+        pixels = 0;
+    }
+
+    /**
+     * Discards every sprite, when the {@code EntityType} no longer uses this
+     * cache.
+     */
+    void clear()
+    {
+        synchronized (usedCaches)
+        {
+            removeSprites();
+        }
+    }
+
+    /**
+     * Draws the image centered on the specified point and rotated by the
+     * specified angle.
+     *
+     * @param g2d            The {@link Graphics2D} to draw on.
+     * @param x              The x coordinate of the center of the image.
+     * @param y              The y coordinate of the center of the image.
+     * @param angleInRadians The angle of the image.
+     */
+    void draw(Graphics2D g2d, float x, float y, float angleInRadians)
+    {
+        AffineTransform transform = g2d.getTransform();
+
+        // NOTE(Eric): The sprites are made for the scene, which is only ever
+        // translated and zoomed. Anything else is drawn from the source image.
+        if ((transform.getType() & ~(AffineTransform.TYPE_TRANSLATION |
+                                     AffineTransform.TYPE_UNIFORM_SCALE)) != 0)
+        {
+            g2d.rotate(angleInRadians, x, y);
+            g2d.drawImage(image,
+                          (int) x - width / 2,
+                          (int) y - height / 2,
+                          width,
+                          height,
+                          null);
+            g2d.setTransform(transform);
+            return;
+        }
+
+        BufferedImage sprite = getSprite((float) transform.getScaleX(), angleInRadians);
+        Point2D center = transform.transform(new Point2D.Float(x, y), null);
+
+        g2d.setTransform(new AffineTransform());
+        g2d.drawImage(sprite,
+                      (int) Math.round(center.getX()) - sprite.getWidth() / 2,
+                      (int) Math.round(center.getY()) - sprite.getHeight() / 2,
+                      null);
+        g2d.setTransform(transform);
+    }
+
+    private BufferedImage getSprite(float newScale, float angleInRadians)
+    {
+        int angleStep = Math.floorMod(Math.round(angleInRadians / MathUtilities.TWO_PI * ANGLE_STEPS),
+                                      ANGLE_STEPS);
+
+        synchronized (usedCaches)
+        {
+            // NOTE(Eric): The sprites of another zoom level are of no use until
+            // the user zooms back, they are made again then.
+            if (newScale != scale)
+            {
+                removeSprites();
+                scale = newScale;
+            }
+
+            BufferedImage sprite = sprites.get(angleStep);
+            if (sprite == null)
+            {
+                sprite = createSprite(scale, angleStep * 2.0 * Math.PI / ANGLE_STEPS);
+                sprites.put(angleStep, sprite);
+                long spritePixels = (long) sprite.getWidth() * sprite.getHeight();
+                pixels += spritePixels;
+                totalPixels += spritePixels;
+            }
+            usedCaches.put(this, Boolean.TRUE);
+
+            trimSprites();
+            return sprite;
+        }
+    }
+
+    /**
+     * Discards the least recently used sprites until all the caches fit in
+     * {@link #MAX_SPRITE_PIXELS}. The sprite just used is always kept.
+     */
+    private static void trimSprites()
+    {
+        Iterator<SpriteCache> caches = usedCaches.keySet().iterator();
+        while (totalPixels > MAX_SPRITE_PIXELS &&
+               caches.hasNext())
+        {
+            SpriteCache cache = caches.next();
+            Iterator<BufferedImage> sprites = cache.sprites.values().iterator();
+
+            // NOTE(Eric): The most recently used cache is last, its most
+            // recently used sprite is the one being drawn.
+            boolean isLast = !caches.hasNext();
+            while (totalPixels > MAX_SPRITE_PIXELS &&
+                   cache.sprites.size() > (isLast ? 1 : 0))
+            {
+                BufferedImage sprite = sprites.next();
+                long spritePixels = (long) sprite.getWidth() * sprite.getHeight();
+                cache.pixels -= spritePixels;
+                totalPixels -= spritePixels;
+                sprites.remove();
+            }
+
+            if (cache.sprites.isEmpty())
+            {
+                caches.remove();
+            }
+        }
+    }
+
+    private void removeSprites()
+    {
+        totalPixels -= pixels;
+        pixels = 0;
+        sprites.clear();
+        usedCaches.remove(this);
+    }
+
+    private BufferedImage createSprite(float scale, double angleInRadians)
+    {
+        // NOTE(Eric): The sprite is square and as wide as the diagonal of the
+        // scaled image, so it holds the image at any angle. Its size is even
+        // so its center falls between two pixels like the image.
+        int halfSize = (int) Math.ceil(Math.hypot(width, height) * scale / 2) + 1;
+        BufferedImage sprite = new BufferedImage(halfSize * 2,
+                                                 halfSize * 2,
+                                                 BufferedImage.TYPE_INT_ARGB_PRE);
+
+        Graphics2D g2d = sprite.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                             RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.translate(halfSize, halfSize);
+        g2d.rotate(angleInRadians);
+        g2d.scale(scale, scale);
+        g2d.drawImage(image, -width / 2, -height / 2, width, height, null);
+        g2d.dispose();
+
+        return sprite;
+    }
+
+}
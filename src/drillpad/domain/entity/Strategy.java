@@ -11,6 +11,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
+import drillpad.domain.event.AnimationBakeObserver;
 import drillpad.domain.event.AnimationPropertiesChangedObserver;
 import drillpad.general.utility.SerializationUtilities;
 
@@ -22,6 +23,7 @@ public class Strategy implements Serializable
 {
     private String name;
     private final List<Entity> entities;
+    private final EntityRegistry registry;
     private final PlayingField playingField;
     private final PlayingElement playingElement;
     private final Animation animation;
@@ -39,10 +41,11 @@ public class Strategy implements Serializable
         this.playingElement = new PlayingElement(
                 new EntityType("default", Color.BLACK, 5, false), null);
         this.entities = new ArrayList<>();
+        this.registry = new EntityRegistry();
         animation = new Animation(entities);
 
         // TODO(JFB) : Create function to generate preview image : newStrategy.generatePreviewImage() 
-        this.strategyPreviewImage = playingFieldImage;
+        this.strategyPreviewImage = playingField.getImage();
     }
 
     private void writeObject(ObjectOutputStream out) throws IOException
@@ -60,12 +63,14 @@ public class Strategy implements Serializable
     boolean addEntity(EntityType entityType, Point2D.Float mousePosition)
     {
         Entity entity = new Entity(entityType, mousePosition);
+        registry.register(entity);
         return entities.add(entity);
     }
 
     boolean addPlayer(EntityType entityType, Role role, Point2D.Float mousePosition)
     {
         Player player = new Player(entityType, role, mousePosition);
+        registry.register(player);
         return entities.add(player);
     }
 
@@ -74,6 +79,7 @@ public class Strategy implements Serializable
         // TODO(Eric): Handle this in a better way, but still allow multiple instances
         PlayingElement element = new PlayingElement(playingElement.entityType,
                                                     mousePosition);
+        registry.register(element);
         return entities.add(element);
     }
 
@@ -97,7 +103,7 @@ public class Strategy implements Serializable
                     }
                 }
 
-                entities.remove(i);
+                registry.unregister(entities.remove(i));
             }
         }
     }
@@ -110,6 +116,12 @@ public class Strategy implements Serializable
         name = newStrategyName;
         isMaxNumberOfPlayersRestricted = newIsMaxNumberOfPlayersRestricted;
         playingField.edit(newPlayingFieldImage, newWidth, newHeight);
+        if (animation.isPoseQuantized())
+        {
+            // NOTE(Eric): The quantized poses are relative to the size of the
+            // image, so they are converted to the new one.
+            setAnimationPoseQuantized(true);
+        }
     }
 
     void editPlayer(Player player, EntityType newTeam, Role newRole,
@@ -162,11 +174,21 @@ public class Strategy implements Serializable
         animation.skipBack();
     }
 
+    boolean bakeAnimation(AnimationBakeObserver observer)
+    {
+        return animation.bake(observer);
+    }
+
     void drawPreviousAnimationImages(Graphics2D g2d)
     {
         animation.drawPreviousImages(g2d);
     }
 
+    void drawPlayingFieldTiles(Graphics2D g2d)
+    {
+        playingField.drawTiles(g2d);
+    }
+
     public void drawPositionsAndArrows(Graphics2D g2d)
     {
         animation.drawPositionsAndArrows(g2d);
@@ -320,6 +342,26 @@ public class Strategy implements Serializable
         return playingField.getImage();
     }
 
+    BufferedImage getPlayingFieldImage(float zoomFactor)
+    {
+        return playingField.getImage(zoomFactor);
+    }
+
+    int getPlayingFieldImageWidth()
+    {
+        return playingField.getImageWidth();
+    }
+
+    int getPlayingFieldImageHeight()
+    {
+        return playingField.getImageHeight();
+    }
+
+    boolean isPlayingFieldTiled(float zoomFactor)
+    {
+        return playingField.isTiled(zoomFactor);
+    }
+
     float getPlayingFieldWidth()
     {
         return playingField.getWidth();
@@ -355,6 +397,18 @@ public class Strategy implements Serializable
         return playingElement.entityType.getImageScale();
     }
 
+    /**
+     * Returns the {@link Entity} with the specified ID in this strategy.
+     *
+     * @param id The ID of the {@code Entity}.
+     * @return The {@code Entity}, or {@code null} if it was removed.
+     * @see EntityRegistry
+     */
+    Entity getEntity(int id)
+    {
+        return registry.get(id);
+    }
+
     List<Entity> getEntities()
     {
         return entities;
@@ -395,6 +449,51 @@ public class Strategy implements Serializable
         return animation.getAnimationStat();
     }
 
+    float getAnimationLagInMillis()
+    {
+        return animation.getPlaybackLagInMillis();
+    }
+
+    int getAnimationDroppedFrameCount()
+    {
+        return animation.getDroppedFrameCount();
+    }
+
+    Interpolation getAnimationInterpolation()
+    {
+        return animation.getInterpolation();
+    }
+
+    int getAnimationFramesPerSecond()
+    {
+        return animation.getFramesPerSecond();
+    }
+
+    float getAnimationPlaybackSpeed()
+    {
+        return animation.getPlaybackSpeed();
+    }
+
+    PlaybackMode getAnimationPlaybackMode()
+    {
+        return animation.getPlaybackMode();
+    }
+
+    boolean isAnimationPoseQuantized()
+    {
+        return animation.isPoseQuantized();
+    }
+
+    float getAnimationSimplificationTolerance()
+    {
+        return animation.getSimplificationTolerance();
+    }
+
+    boolean isAnimationReversed()
+    {
+        return animation.isReversed();
+    }
+
     List<PlayingElement> getOwnedPlayingElements(Player player)
     {
         List<PlayingElement> ownedPlayingElements = new ArrayList<>();
@@ -463,9 +562,76 @@ public class Strategy implements Serializable
         animation.setCurrentFrame(frame);
     }
 
-    void setAnimationSelectedEntity(Entity value)
+    void captureAnimationInput()
+    {
+        animation.captureInput();
+    }
+
+    void setAnimationSelectedEntities(List<Entity> value)
+    {
+        animation.setSelectedEntities(value);
+    }
+
+    void setAnimationInterpolation(Interpolation value)
+    {
+        animation.setInterpolation(value);
+    }
+
+    void setAnimationSimplificationTolerances(float distance, float angleInRadians)
+    {
+        animation.setSimplificationTolerances(distance, angleInRadians);
+    }
+
+    void setAnimationFramesPerSecond(int value)
+    {
+        animation.setFramesPerSecond(value);
+    }
+
+    void setAnimationPlaybackSpeed(float value)
+    {
+        animation.setPlaybackSpeed(value);
+    }
+
+    void setAnimationPlaybackMode(PlaybackMode value)
+    {
+        animation.setPlaybackMode(value);
+    }
+
+    void setAnimationReversed(boolean value)
+    {
+        animation.setReversed(value);
+    }
+
+    void setAnimationPoseQuantized(boolean value)
+    {
+        animation.setPoseQuantized(value,
+                                   playingField.getImageWidth(),
+                                   playingField.getImageHeight());
+    }
+
+    void setAnimationPlaybackRangeStart()
+    {
+        animation.setPlaybackRangeStart();
+    }
+
+    void setAnimationPlaybackRangeEnd()
+    {
+        animation.setPlaybackRangeEnd();
+    }
+
+    void clearAnimationPlaybackRange()
+    {
+        animation.clearPlaybackRange();
+    }
+
+    void insertAnimationTime()
+    {
+        animation.insertTime();
+    }
+
+    void deleteAnimationPlaybackRange()
     {
-        animation.setSelectedEntity(value);
+        animation.deletePlaybackRange();
     }
 
 }
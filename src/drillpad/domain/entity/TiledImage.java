@@ -0,0 +1,676 @@
+package drillpad.domain.entity;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import drillpad.general.utility.UndoStateInputStream;
+import drillpad.general.utility.UndoStateOutputStream;
+
+/**
+ * Holds a very large playing field image outside of the heap.
+ * <p>
+ * The image is cut in square tiles stored in a memory-mapped cache file,
+ * along with levels of tiles reduced by half each, down to a reduced preview
+ * kept on the heap. A tile is only decoded into a {@link BufferedImage} when
+ * it is drawn, from the smallest level still at least as large as the zoomed
+ * image, and the decoded tiles are kept until they are the least recently
+ * used ones past what the visible part of the scroll pane needs. Only the
+ * tiles inside the clip of the {@link Graphics2D} are drawn.
+ * <p>
+ * The preview stands for the image everywhere a {@code BufferedImage} is
+ * expected and is drawn instead of the tiles when zoomed out further. A tiled
+ * image never changes, so the sport and the strategies sharing the same
+ * image, and the copies made for undo, share the same instance. The copies
+ * made for undo only hold its id and size, the tiles are written to saved
+ * files only. Its cache file is deleted once no copy uses it anymore.
+ *
+ * @author Eric Perron
+ */
+final class TiledImage implements Serializable
+{
+    /**
+     * Images with more pixels than this are tiled.
+     */
+    static final long MIN_TILED_PIXELS = 4096L * 4096L;
+
+    private static final int TILE_SIZE = 256;
+    private static final int TILE_BYTES = TILE_SIZE * TILE_SIZE * 4;
+    private static final int MIN_DECODED_TILES = 64;
+    private static final int MAX_PREVIEW_SIZE = 4096;
+
+    // NOTE(Eric): Weak so an image nothing uses anymore can be collected.
+    private static final List<WeakReference<TiledImage>> LIVE_IMAGES = new ArrayList<>();
+
+    // NOTE(Eric): The references have to stay reachable until the images are
+    // collected. A mapped file can not be deleted on some systems until its
+    // buffers are collected too, so the files are tried again later.
+    private static final ReferenceQueue<TiledImage> COLLECTED_IMAGES = new ReferenceQueue<>();
+    private static final Set<CacheFile> CACHE_FILES = new HashSet<>();
+    private static final List<File> UNDELETED_FILES = new ArrayList<>();
+
+    private final String id;
+    private final int width;
+    private final int height;
+    private final boolean isOpaque;
+
+    private transient Level[] levels;
+    private transient LinkedHashMap<Integer, BufferedImage> decodedTiles;
+    private transient int maxDecodedTiles;
+    private transient BufferedImage preview;
+
+    private TiledImage(String id, int width, int height, boolean isOpaque)
+    {
+        this.id = id;
+        this.width = width;
+        this.height = height;
+        this.isOpaque = isOpaque;
+    }
+
+    /**
+     * Returns the tiled image to use for the specified image.
+     *
+     * @param image An image, or the preview of a tiled image.
+     * @return The tiled image the specified image is the preview of, a new
+     *         tiled image if it has more than {@link #MIN_TILED_PIXELS}
+     *         pixels, or {@code null} if it is small enough to be drawn as is.
+     */
+    static TiledImage of(BufferedImage image)
+    {
+        if (image == null)
+        {
+            return null;
+        }
+
+        synchronized (LIVE_IMAGES)
+        {
+            for (WeakReference<TiledImage> reference : LIVE_IMAGES)
+            {
+                TiledImage tiledImage = reference.get();
+                if (tiledImage != null &&
+                    tiledImage.preview == image)
+                {
+                    return tiledImage;
+                }
+            }
+        }
+
+        if ((long) image.getWidth() * image.getHeight() <= MIN_TILED_PIXELS)
+        {
+            return null;
+        }
+
+        try
+        {
+            TiledImage tiledImage = new TiledImage(UUID.randomUUID().toString(),
+                                                   image.getWidth(),
+                                                   image.getHeight(),
+                                                   image.getTransparency() == Transparency.OPAQUE);
+            tiledImage.createTiles();
+            Level level = tiledImage.levels[0];
+            int[] pixels = new int[TILE_SIZE * TILE_SIZE];
+            for (int row = 0; row < level.rowCount; ++row)
+            {
+                for (int column = 0; column < level.columnCount; ++column)
+                {
+                    Rectangle bounds = level.getTileBounds(column, row);
+                    image.getRGB(bounds.x, bounds.y, bounds.width, bounds.height,
+                                 pixels, 0, TILE_SIZE);
+                    level.getTilePixels(column, row).put(pixels);
+                }
+            }
+            tiledImage.createReducedLevels();
+            tiledImage.createPreview();
+            tiledImage.register();
+
+            return tiledImage;
+        }
+        catch (IOException ex)
+        {
+            // NOTE(Eric): Without a cache file, the image stays on the heap
+            // like smaller ones.
+            return null;
+        }
+    }
+
+    int getWidth()
+    {
+        return width;
+    }
+
+    int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Returns the reduced copy of this image kept on the heap, at most 4096
+     * pixels wide and high.
+     */
+    BufferedImage getPreview()
+    {
+        return preview;
+    }
+
+    /**
+     * Returns the scale of the preview relative to this image.
+     */
+    float getPreviewScale()
+    {
+        return (float) preview.getWidth() / (float) width;
+    }
+
+    /**
+     * Draws the tiles of this image that intersect the clip of the specified
+     * {@link Graphics2D}, from the smallest level of tiles that is at least
+     * as large as the image once drawn.
+     *
+     * @param g2d The {@code Graphics2D} to draw on, in image coordinates.
+     */
+    synchronized void draw(Graphics2D g2d)
+    {
+        AffineTransform transform = g2d.getTransform();
+        double scale = Math.abs(transform.getScaleX());
+
+        // NOTE(Eric): The last level is the preview, drawn by the caller when
+        // it is large enough.
+        int levelIndex = 0;
+        while (levelIndex + 2 < levels.length &&
+               levels[levelIndex + 1].getScaleX() >= scale)
+        {
+            ++levelIndex;
+        }
+        Level level = levels[levelIndex];
+        g2d.scale(1.0 / level.getScaleX(), 1.0 / level.getScaleY());
+
+        Rectangle clip = g2d.getClipBounds();
+        if (clip == null)
+        {
+            clip = new Rectangle(0, 0, level.width, level.height);
+        }
+
+        int firstColumn = Math.max(clip.x / TILE_SIZE, 0);
+        int firstRow = Math.max(clip.y / TILE_SIZE, 0);
+        int lastColumn = Math.min((clip.x + clip.width) / TILE_SIZE, level.columnCount - 1);
+        int lastRow = Math.min((clip.y + clip.height) / TILE_SIZE, level.rowCount - 1);
+
+        // NOTE(Eric): Enough tiles are kept for the largest area drawn so far
+        // and a ring around it, so repainting or scrolling a little does not
+        // decode the visible tiles again.
+        maxDecodedTiles = Math.max(maxDecodedTiles,
+                                   (lastColumn - firstColumn + 3) * (lastRow - firstRow + 3));
+
+        for (int row = firstRow; row <= lastRow; ++row)
+        {
+            for (int column = firstColumn; column <= lastColumn; ++column)
+            {
+                g2d.drawImage(getTile(level, column, row),
+                              column * TILE_SIZE,
+                              row * TILE_SIZE,
+                              null);
+            }
+        }
+
+        g2d.setTransform(transform);
+    }
+
+    /**
+     * Creates the cache file holding every level of tiles, down to the first
+     * level small enough to be the preview.
+     */
+    private void createTiles() throws IOException
+    {
+        List<Level> newLevels = new ArrayList<>();
+        int levelWidth = width;
+        int levelHeight = height;
+        int firstTile = 0;
+        while (true)
+        {
+            Level level = new Level(levelWidth, levelHeight, firstTile, width, height);
+            newLevels.add(level);
+            firstTile += level.columnCount * level.rowCount;
+            if (levelWidth <= MAX_PREVIEW_SIZE &&
+                levelHeight <= MAX_PREVIEW_SIZE)
+            {
+                break;
+            }
+            levelWidth = (levelWidth + 1) / 2;
+            levelHeight = (levelHeight + 1) / 2;
+        }
+        levels = newLevels.toArray(new Level[newLevels.size()]);
+
+        deleteUnusedCacheFiles();
+        File file = File.createTempFile("drillpad", ".tiles");
+        file.deleteOnExit();
+        synchronized (CACHE_FILES)
+        {
+            CACHE_FILES.add(new CacheFile(this, file));
+        }
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+             FileChannel channel = randomAccessFile.getChannel())
+        {
+            // NOTE(Eric): One mapping per row of tiles, a single mapping can
+            // not exceed 2 GB.
+            for (Level level : levels)
+            {
+                long rowBytes = (long) level.columnCount * TILE_BYTES;
+                for (int row = 0; row < level.rowCount; ++row)
+                {
+                    level.tileRows[row] = channel.map(FileChannel.MapMode.READ_WRITE,
+                                                      (long) level.firstTile * TILE_BYTES + row * rowBytes,
+                                                      rowBytes);
+                    level.tileRows[row].order(ByteOrder.LITTLE_ENDIAN);
+                }
+            }
+        }
+
+        createDecodedTiles();
+    }
+
+    /**
+     * Deletes the cache files of the images that were collected.
+     */
+    private static void deleteUnusedCacheFiles()
+    {
+        synchronized (CACHE_FILES)
+        {
+            Reference<? extends TiledImage> reference;
+            while ((reference = COLLECTED_IMAGES.poll()) != null)
+            {
+                CACHE_FILES.remove(reference);
+                UNDELETED_FILES.add(((CacheFile) reference).file);
+            }
+
+            Iterator<File> iterator = UNDELETED_FILES.iterator();
+            while (iterator.hasNext())
+            {
+                File file = iterator.next();
+                if (file.delete() ||
+                    !file.exists())
+                {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void createDecodedTiles()
+    {
+        maxDecodedTiles = MIN_DECODED_TILES;
+
+        // NOTE(Eric): In access order, the eldest entry is the least recently
+        // used one.
+        decodedTiles = new LinkedHashMap<Integer, BufferedImage>(MIN_DECODED_TILES * 4 / 3 + 1, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest)
+            {
+                return (size() > maxDecodedTiles);
+            }
+        };
+    }
+
+    /**
+     * Fills each level after the first by reducing the tiles of the level
+     * before it.
+     */
+    private void createReducedLevels()
+    {
+        int[] pixels = new int[TILE_SIZE * TILE_SIZE];
+        for (int levelIndex = 1; levelIndex < levels.length; ++levelIndex)
+        {
+            Level source = levels[levelIndex - 1];
+            Level level = levels[levelIndex];
+            for (int row = 0; row < level.rowCount; ++row)
+            {
+                for (int column = 0; column < level.columnCount; ++column)
+                {
+                    // NOTE(Eric): Tiles start on even pixels, so each pixel
+                    // is the average of four pixels of the same source tile.
+                    Rectangle bounds = level.getTileBounds(column, row);
+                    BufferedImage tile = createImage(bounds.width, bounds.height);
+                    Graphics2D g2d = tile.createGraphics();
+                    g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                                         RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    g2d.scale(0.5, 0.5);
+                    for (int sourceRow = row * 2;
+                         sourceRow < Math.min(row * 2 + 2, source.rowCount);
+                         ++sourceRow)
+                    {
+                        for (int sourceColumn = column * 2;
+                             sourceColumn < Math.min(column * 2 + 2, source.columnCount);
+                             ++sourceColumn)
+                        {
+                            g2d.drawImage(decodeTile(source, sourceColumn, sourceRow),
+                                          (sourceColumn - column * 2) * TILE_SIZE,
+                                          (sourceRow - row * 2) * TILE_SIZE,
+                                          null);
+                        }
+                    }
+                    g2d.dispose();
+
+                    tile.getRGB(0, 0, bounds.width, bounds.height, pixels, 0, TILE_SIZE);
+                    level.getTilePixels(column, row).put(pixels);
+                }
+            }
+        }
+    }
+
+    private void createPreview()
+    {
+        Level level = levels[levels.length - 1];
+        preview = createImage(level.width, level.height);
+
+        Graphics2D g2d = preview.createGraphics();
+        for (int row = 0; row < level.rowCount; ++row)
+        {
+            for (int column = 0; column < level.columnCount; ++column)
+            {
+                g2d.drawImage(decodeTile(level, column, row), column * TILE_SIZE, row * TILE_SIZE, null);
+            }
+        }
+        g2d.dispose();
+    }
+
+    private BufferedImage createImage(int imageWidth, int imageHeight)
+    {
+        return new BufferedImage(imageWidth,
+                                 imageHeight,
+                                 isOpaque ?
+                                 BufferedImage.TYPE_INT_RGB :
+                                 BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private void register()
+    {
+        synchronized (LIVE_IMAGES)
+        {
+            Iterator<WeakReference<TiledImage>> iterator = LIVE_IMAGES.iterator();
+            while (iterator.hasNext())
+            {
+                if (iterator.next().get() == null)
+                {
+                    iterator.remove();
+                }
+            }
+            LIVE_IMAGES.add(new WeakReference<>(this));
+        }
+    }
+
+    private static TiledImage find(String id)
+    {
+        synchronized (LIVE_IMAGES)
+        {
+            for (WeakReference<TiledImage> reference : LIVE_IMAGES)
+            {
+                TiledImage tiledImage = reference.get();
+                if (tiledImage != null &&
+                    tiledImage.id.equals(id))
+                {
+                    return tiledImage;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private BufferedImage getTile(Level level, int column, int row)
+    {
+        int key = level.firstTile + row * level.columnCount + column;
+        BufferedImage tile = decodedTiles.get(key);
+        if (tile == null)
+        {
+            tile = decodeTile(level, column, row);
+            decodedTiles.put(key, tile);
+        }
+
+        return tile;
+    }
+
+    private BufferedImage decodeTile(Level level, int column, int row)
+    {
+        Rectangle bounds = level.getTileBounds(column, row);
+        BufferedImage tile = createImage(bounds.width, bounds.height);
+        int[] tilePixels = ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+        IntBuffer pixels = level.getTilePixels(column, row);
+        for (int y = 0; y < bounds.height; ++y)
+        {
+            pixels.position(y * TILE_SIZE);
+            pixels.get(tilePixels, y * bounds.width, bounds.width);
+        }
+
+        return tile;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException
+    {
+        out.defaultWriteObject();
+
+        // NOTE(Eric): The copy made for undo is read back while this image is
+        // still live, it is found again by its id.
+        if (out instanceof UndoStateOutputStream)
+        {
+            return;
+        }
+
+        // NOTE(Eric): Each tile is compressed on its own so the image is never
+        // held on the heap at once.
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        byte[] tileBytes = new byte[TILE_BYTES];
+        byte[] compressedBytes = new byte[TILE_BYTES + TILE_BYTES / 1000 + 64];
+        Level level = levels[0];
+        for (int row = 0; row < level.rowCount; ++row)
+        {
+            for (int column = 0; column < level.columnCount; ++column)
+            {
+                ByteBuffer tile = level.tileRows[row].duplicate();
+                tile.position(column * TILE_BYTES);
+                tile.get(tileBytes);
+
+                deflater.reset();
+                deflater.setInput(tileBytes);
+                deflater.finish();
+                int length = deflater.deflate(compressedBytes);
+                if (!deflater.finished())
+                {
+                    throw new IOException("Tile could not be compressed");
+                }
+                out.writeInt(length);
+                out.write(compressedBytes, 0, length);
+            }
+        }
+        deflater.end();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+
+        TiledImage liveImage = find(id);
+        if (in instanceof UndoStateInputStream)
+        {
+            if (liveImage == null)
+            {
+                throw new InvalidObjectException("Tiled image not found");
+            }
+            return;
+        }
+
+        if (liveImage != null)
+        {
+            // NOTE(Eric): readResolve() returns the live image, the tiles are
+            // only skipped.
+            Level level = liveImage.levels[0];
+            for (int tile = 0; tile < level.columnCount * level.rowCount; ++tile)
+            {
+                int length = in.readInt();
+                in.readFully(new byte[length]);
+            }
+            return;
+        }
+
+        createTiles();
+        Level level = levels[0];
+        Inflater inflater = new Inflater();
+        byte[] tileBytes = new byte[TILE_BYTES];
+        byte[] compressedBytes = new byte[TILE_BYTES + TILE_BYTES / 1000 + 64];
+        try
+        {
+            for (int row = 0; row < level.rowCount; ++row)
+            {
+                for (int column = 0; column < level.columnCount; ++column)
+                {
+                    int length = in.readInt();
+                    in.readFully(compressedBytes, 0, length);
+
+                    inflater.reset();
+                    inflater.setInput(compressedBytes, 0, length);
+                    if (inflater.inflate(tileBytes) != TILE_BYTES)
+                    {
+                        throw new InvalidObjectException("Truncated tile");
+                    }
+
+                    ByteBuffer tile = level.tileRows[row].duplicate();
+                    tile.position(column * TILE_BYTES);
+                    tile.put(tileBytes);
+                }
+            }
+        }
+        catch (DataFormatException ex)
+        {
+            throw new InvalidObjectException(ex.getMessage());
+        }
+        finally
+        {
+            inflater.end();
+        }
+
+        createReducedLevels();
+        createPreview();
+        register();
+    }
+
+    private Object readResolve() throws ObjectStreamException
+    {
+        TiledImage liveImage = find(id);
+
+        return (liveImage == null) ? this : liveImage;
+    }
+
+    /**
+     * A level of tiles, the image reduced by half once more than the level
+     * before it.
+     */
+    private static final class Level
+    {
+        private final int width;
+        private final int height;
+        private final int columnCount;
+        private final int rowCount;
+        // NOTE(Eric): The index of the first tile of this level in the cache
+        // file, also used to key its decoded tiles.
+        private final int firstTile;
+        private final double scaleX;
+        private final double scaleY;
+        private final MappedByteBuffer[] tileRows;
+
+        Level(int width, int height, int firstTile, int imageWidth, int imageHeight)
+        {
+            this.width = width;
+            this.height = height;
+            this.firstTile = firstTile;
+            scaleX = (double) width / (double) imageWidth;
+            scaleY = (double) height / (double) imageHeight;
+            columnCount = (width + TILE_SIZE - 1) / TILE_SIZE;
+            rowCount = (height + TILE_SIZE - 1) / TILE_SIZE;
+            tileRows = new MappedByteBuffer[rowCount];
+        }
+
+        /**
+         * Returns the horizontal scale of this level relative to the image.
+         */
+        double getScaleX()
+        {
+            return scaleX;
+        }
+
+        double getScaleY()
+        {
+            return scaleY;
+        }
+
+        Rectangle getTileBounds(int column, int row)
+        {
+            int x = column * TILE_SIZE;
+            int y = row * TILE_SIZE;
+
+            return new Rectangle(x, y,
+                                 Math.min(TILE_SIZE, width - x),
+                                 Math.min(TILE_SIZE, height - y));
+        }
+
+        /**
+         * Returns the pixels of a tile in the cache file, as TILE_SIZE rows
+         * of TILE_SIZE pixels whatever the size of the tile.
+         */
+        IntBuffer getTilePixels(int column, int row)
+        {
+            ByteBuffer tile = tileRows[row].duplicate();
+            tile.position(column * TILE_BYTES);
+            tile.limit(tile.position() + TILE_BYTES);
+
+            return tile.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+
+    }
+
+    /**
+     * The cache file of an image, deleted once the image is collected.
+     */
+    private static final class CacheFile extends PhantomReference<TiledImage>
+    {
+        private final File file;
+
+        CacheFile(TiledImage tiledImage, File file)
+        {
+            super(tiledImage, COLLECTED_IMAGES);
+            this.file = file;
+        }
+
+    }
+
+}
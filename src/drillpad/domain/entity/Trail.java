@@ -0,0 +1,108 @@
+package drillpad.domain.entity;
+
+import java.awt.geom.Path2D;
+
+/**
+ * The path followed by an {@link Entity} during an {@link Animation}, kept so
+ * it does not have to be computed from every frame each time the arrows are
+ * drawn.
+ * <p>
+ * A trail is built one frame at a time. Frames added after the ones already
+ * in the trail only extend it; any change to a frame already in the trail
+ * requires a new trail.
+ *
+ * @author Eric Perron
+ */
+class Trail
+{
+    private final Path2D.Float path;
+    private float[] firstPose;
+    private float[] lastPose;
+    private int frameCount;
+
+    Trail()
+    {
+        path = new Path2D.Float();
+        firstPose = null;
+        lastPose = null;
+        frameCount = 0;
+    }
+
+    /**
+     * Adds the next frame to this trail.
+     *
+     * @param pose The pose of the entity at the next frame or {@code null} if
+     *             it is not animated at that frame.
+     */
+    void addFrame(float[] pose)
+    {
+        if (pose != null)
+        {
+            if (firstPose == null)
+            {
+                firstPose = pose.clone();
+                lastPose = pose.clone();
+                path.moveTo(pose[0], pose[1]);
+            }
+            else
+            {
+                if (pose[0] != lastPose[0] ||
+                    pose[1] != lastPose[1])
+                {
+                    path.lineTo(pose[0], pose[1]);
+                }
+                System.arraycopy(pose, 0, lastPose, 0, pose.length);
+            }
+        }
+        ++frameCount;
+    }
+
+    Path2D.Float getPath()
+    {
+        return path;
+    }
+
+    /**
+     * Returns the first pose of this trail.
+     *
+     * @return The first pose or {@code null} if the entity is never animated.
+     */
+    float[] getFirstPose()
+    {
+        return firstPose;
+    }
+
+    /**
+     * Returns the last pose of this trail.
+     *
+     * @return The last pose or {@code null} if the entity is never animated.
+     */
+    float[] getLastPose()
+    {
+        return lastPose;
+    }
+
+    /**
+     * Returns the number of frames already in this trail.
+     *
+     * @return The number of frames.
+     */
+    int getFrameCount()
+    {
+        return frameCount;
+    }
+
+    /**
+     * Returns whether the entity moves or turns along this trail.
+     *
+     * @return {@code true} if the first and last poses are different.
+     */
+    boolean isAnimated()
+    {
+        return (firstPose != null &&
+                (firstPose[0] != lastPose[0] ||
+                 firstPose[1] != lastPose[1] ||
+                 firstPose[2] != lastPose[2]));
+    }
+
+}
@@ -0,0 +1,30 @@
+package drillpad.domain.event;
+
+/**
+ * Follows the bake of an animation, which computes the pose of every entity
+ * at every frame ahead of time.
+ * <p>
+ * Both methods are called from the threads doing the bake, not from the
+ * event dispatch thread.
+ *
+ * @author Eric Perron
+ */
+public interface AnimationBakeObserver
+{
+    /**
+     * Called every time the poses of an entity are done.
+     *
+     * @param bakedEntityCount The number of entities done so far.
+     * @param entityCount      The number of entities to bake.
+     */
+    void bakeProgressChanged(int bakedEntityCount, int entityCount);
+
+    /**
+     * Checked regularly during the bake. Once it returns {@code true}, the
+     * bake stops as soon as possible and its result is discarded.
+     *
+     * @return {@code true} to cancel the bake.
+     */
+    boolean isBakeCancelled();
+
+}
@@ -3,6 +3,7 @@ package drillpad.general.utility;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.RenderingHints;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 
 import javax.swing.ImageIcon;
@@ -69,4 +70,32 @@ public class ImageUtilities
         return (new ImageIcon(resizedImg));
     }
 
+    /**
+     * Returns a copy of the specified image at half its width and height,
+     * each pixel being the average of the 2 x 2 pixels it replaces.
+     *
+     * @param image The image to reduce.
+     * @return The reduced image, at least 1 x 1 pixel.
+     */
+    public static BufferedImage getHalvedImage(BufferedImage image)
+    {
+        int width = Math.max((image.getWidth() + 1) / 2, 1);
+        int height = Math.max((image.getHeight() + 1) / 2, 1);
+        int type = (image.getTransparency() == Transparency.OPAQUE) ?
+                   BufferedImage.TYPE_INT_RGB :
+                   BufferedImage.TYPE_INT_ARGB;
+
+        BufferedImage halvedImage = new BufferedImage(width, height, type);
+        Graphics2D g2 = halvedImage.createGraphics();
+
+        // NOTE(Eric): At exactly half the size, bilinear filtering samples
+        // between the source pixels and averages them.
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                            RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2.drawImage(image, 0, 0, width, height, null);
+        g2.dispose();
+
+        return halvedImage;
+    }
+
 }
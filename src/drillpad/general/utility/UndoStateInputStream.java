@@ -0,0 +1,20 @@
+package drillpad.general.utility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+
+/**
+ * An {@link ObjectInputStream} reading a copy of the scene written by an
+ * {@link UndoStateOutputStream}.
+ *
+ * @author Eric Perron
+ */
+public class UndoStateInputStream extends ObjectInputStream
+{
+    public UndoStateInputStream(InputStream in) throws IOException
+    {
+        super(in);
+    }
+
+}
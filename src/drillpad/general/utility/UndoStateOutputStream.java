@@ -0,0 +1,24 @@
+package drillpad.general.utility;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * An {@link ObjectOutputStream} writing a copy of the scene kept in memory
+ * for undo, read back by an {@link UndoStateInputStream}.
+ * <p>
+ * The objects sharing an instance that outlives the copy, like a tiled
+ * playing field image, check for this stream and write only what is needed to
+ * find the instance again instead of their content.
+ *
+ * @author Eric Perron
+ */
+public class UndoStateOutputStream extends ObjectOutputStream
+{
+    public UndoStateOutputStream(OutputStream out) throws IOException
+    {
+        super(out);
+    }
+
+}
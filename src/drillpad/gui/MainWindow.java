@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -31,7 +32,9 @@ import javax.swing.JColorChooser;
 import javax.swing.JComponent;
 import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
+import javax.swing.ProgressMonitor;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.Timer;
 import javax.swing.border.Border;
 import javax.swing.filechooser.FileFilter;
@@ -39,6 +42,9 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.plaf.basic.BasicComboBoxRenderer;
 
 import drillpad.domain.SceneController;
+import drillpad.domain.entity.Interpolation;
+import drillpad.domain.entity.PlaybackMode;
+import drillpad.domain.event.AnimationBakeObserver;
 import drillpad.domain.event.AnimationPropertiesChangedObserver;
 import drillpad.domain.event.InstanceChangedObserver;
 import drillpad.gui.extensions.RotationArrow;
@@ -76,6 +82,17 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
 
     private boolean animationWasPreviouslyRunning;
 
+    // NOTE(Eric): While the time slider is dragged, only the last frame it
+    // reached is applied, at most once per display refresh.
+    private static final int SCRUB_INTERVAL_IN_MILLIS = 16;
+    private final Timer scrubTimer;
+
+    // NOTE(Eric): Changing the frame rate resamples the recorded poses, which
+    // rounds them to the new frames. Only the value the spinner settles on is
+    // applied, so stepping through several rates resamples once.
+    private static final int FRAME_RATE_COMMIT_DELAY_IN_MILLIS = 600;
+    private final Timer frameRateTimer;
+
     // Used to display an arrow when it is possible to rotate a Player
     RotationArrow rotationArrow;
     
@@ -99,6 +116,15 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
     private final Border blackLineBorder = BorderFactory.createLineBorder(Color.BLACK);
     private final Border emptyBorder = BorderFactory.createEmptyBorder(1, 1, 1, 1);
 
+    // NOTE(Eric): The errors allowed by each choice of the simplification
+    // menu, in pixels and degrees.
+    private static final float FINE_SIMPLIFICATION_DISTANCE = 0.5f;
+    private static final float FINE_SIMPLIFICATION_ANGLE_IN_DEGREES = 1f;
+    private static final float MEDIUM_SIMPLIFICATION_DISTANCE = 1f;
+    private static final float MEDIUM_SIMPLIFICATION_ANGLE_IN_DEGREES = 2f;
+    private static final float STRONG_SIMPLIFICATION_DISTANCE = 3f;
+    private static final float STRONG_SIMPLIFICATION_ANGLE_IN_DEGREES = 5f;
+
     private final String frameByFrameString = "Image par image";
     private final String realTimeAnimationString = "Temps réel";
 
@@ -121,16 +147,25 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         drawingPanel.add(rotationArrow);
         rotationArrow.setVisible(false);
 
-        // TODO(Eric): Observer pattern for this
-        // NOTE: Needed for the marching ants selection effect
-        new Timer(50, new ActionListener()
-          {
-              @Override
-              public void actionPerformed(ActionEvent e)
-              {
-                  drawingPanel.repaint();
-              }
-          }).start();
+        scrubTimer = new Timer(SCRUB_INTERVAL_IN_MILLIS, new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                controller.setCurrentFrame(timeSlider.getValue());
+            }
+        });
+        scrubTimer.setRepeats(false);
+
+        frameRateTimer = new Timer(FRAME_RATE_COMMIT_DELAY_IN_MILLIS, new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                commitFramesPerSecond();
+            }
+        });
+        frameRateTimer.setRepeats(false);
 
         strategyComboBox.addItemListener(new ItemListener()
         {
@@ -139,6 +174,13 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
             {
                 if (ie.getStateChange() == ItemEvent.SELECTED)
                 {
+                    // NOTE(Eric): A frame rate still pending belongs to the
+                    // strategy being left.
+                    if (frameRateTimer.isRunning())
+                    {
+                        commitFramesPerSecond();
+                    }
+
                     if (controller.getCurrentSportStrategyCount() > 0)
                     {
                         controller.loadStrategy(strategyComboBox.getSelectedStrategyName());
@@ -146,11 +188,39 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
                                                frameByFrameString :
                                                realTimeAnimationString;
                         animationModeComboBox.setSelectedItem(animationMode);
+                        actionListenerEnabled = false;
+                        framesPerSecondSpinner.setValue(controller.getAnimationFramesPerSecond());
+                        playbackSpeedSpinner.setValue((double) controller.getAnimationPlaybackSpeed());
+                        actionListenerEnabled = true;
+                        compactPosesCheckBoxMenuItem.setSelected(controller.isAnimationPoseQuantized());
+                        refreshSimplificationMenuItems();
+                        reverseCheckBoxMenuItem.setSelected(controller.isAnimationReversed());
+                        switch (controller.getAnimationPlaybackMode())
+                        {
+                            case LOOP:
+                                loopRadioButtonMenuItem.setSelected(true);
+                                break;
+                            case PING_PONG:
+                                pingPongRadioButtonMenuItem.setSelected(true);
+                                break;
+                            default:
+                                playOnceRadioButtonMenuItem.setSelected(true);
+                                break;
+                        }
+                        if (controller.getAnimationInterpolation() == Interpolation.CATMULL_ROM)
+                        {
+                            catmullRomInterpolationRadioButtonMenuItem.setSelected(true);
+                        }
+                        else
+                        {
+                            linearInterpolationRadioButtonMenuItem.setSelected(true);
+                        }
                         resizeDrawingPanel();
                     }
                     else
                     {
                         refreshMenusAndButtonsState();
+                        drawingPanel.repaint();
                     }
                 }
                 animationPropertiesChanged();
@@ -172,6 +242,9 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         java.awt.GridBagConstraints gridBagConstraints;
 
         displayModeMenuButtonGroup = new javax.swing.ButtonGroup();
+        playbackModeMenuButtonGroup = new javax.swing.ButtonGroup();
+        simplificationMenuButtonGroup = new javax.swing.ButtonGroup();
+        interpolationMenuButtonGroup = new javax.swing.ButtonGroup();
         mainPanel = new javax.swing.JPanel();
         toolBarPanel = new javax.swing.JPanel();
         strategyComboBox = new drillpad.gui.extensions.StrategyComboBox();
@@ -201,6 +274,10 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         skipForwardButton = new javax.swing.JButton();
         playbackToolBarFiller1 = new javax.swing.Box.Filler(new java.awt.Dimension(5, 0), new java.awt.Dimension(5, 0), new java.awt.Dimension(5, 32767));
         skipAmountInSecondsSpinner = new javax.swing.JSpinner();
+        playbackToolBarFiller4 = new javax.swing.Box.Filler(new java.awt.Dimension(5, 0), new java.awt.Dimension(5, 0), new java.awt.Dimension(5, 32767));
+        playbackSpeedSpinner = new javax.swing.JSpinner();
+        playbackToolBarFiller5 = new javax.swing.Box.Filler(new java.awt.Dimension(5, 0), new java.awt.Dimension(5, 0), new java.awt.Dimension(5, 32767));
+        framesPerSecondSpinner = new javax.swing.JSpinner();
         playbackToolBarFiller2 = new javax.swing.Box.Filler(new java.awt.Dimension(10, 0), new java.awt.Dimension(10, 0), new java.awt.Dimension(10, 32767));
         animationModeComboBox = new javax.swing.JComboBox<>();
         playbackToolBarFiller3 = new javax.swing.Box.Filler(new java.awt.Dimension(10, 0), new java.awt.Dimension(10, 0), new java.awt.Dimension(10, 32767));
@@ -272,6 +349,28 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         fastForwardMenuItem = new javax.swing.JMenuItem();
         skipBackMenuItem = new javax.swing.JMenuItem();
         skipForwardMenuItem = new javax.swing.JMenuItem();
+        playbackMenuSeparator1 = new javax.swing.JPopupMenu.Separator();
+        playOnceRadioButtonMenuItem = new javax.swing.JRadioButtonMenuItem();
+        loopRadioButtonMenuItem = new javax.swing.JRadioButtonMenuItem();
+        pingPongRadioButtonMenuItem = new javax.swing.JRadioButtonMenuItem();
+        reverseCheckBoxMenuItem = new javax.swing.JCheckBoxMenuItem();
+        interpolationMenuSeparator = new javax.swing.JPopupMenu.Separator();
+        linearInterpolationRadioButtonMenuItem = new javax.swing.JRadioButtonMenuItem();
+        catmullRomInterpolationRadioButtonMenuItem = new javax.swing.JRadioButtonMenuItem();
+        playbackMenuSeparator2 = new javax.swing.JPopupMenu.Separator();
+        setRangeStartMenuItem = new javax.swing.JMenuItem();
+        setRangeEndMenuItem = new javax.swing.JMenuItem();
+        clearRangeMenuItem = new javax.swing.JMenuItem();
+        insertTimeMenuItem = new javax.swing.JMenuItem();
+        deleteRangeMenuItem = new javax.swing.JMenuItem();
+        playbackMenuSeparator3 = new javax.swing.JPopupMenu.Separator();
+        compactPosesCheckBoxMenuItem = new javax.swing.JCheckBoxMenuItem();
+        simplificationSubMenu = new javax.swing.JMenu();
+        noSimplificationRadioButtonMenuItem = new javax.swing.JRadioButtonMenuItem();
+        fineSimplificationRadioButtonMenuItem = new javax.swing.JRadioButtonMenuItem();
+        mediumSimplificationRadioButtonMenuItem = new javax.swing.JRadioButtonMenuItem();
+        strongSimplificationRadioButtonMenuItem = new javax.swing.JRadioButtonMenuItem();
+        bakeMenuItem = new javax.swing.JMenuItem();
 
         setDefaultCloseOperation(javax.swing.WindowConstants.EXIT_ON_CLOSE);
         setTitle("VisuaLigue");
@@ -685,6 +784,40 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         });
         playbackToolBar.add(skipAmountInSecondsSpinner);
 
+        playbackToolBarFiller4.setFocusable(false);
+        playbackToolBar.add(playbackToolBarFiller4);
+
+        playbackSpeedSpinner.setModel(new javax.swing.SpinnerNumberModel(1.0d, 0.1d, 4.0d, 0.1d));
+        playbackSpeedSpinner.setToolTipText("Vitesse de lecture (1 = vitesse normale)");
+        playbackSpeedSpinner.setMaximumSize(new java.awt.Dimension(48, 28));
+        playbackSpeedSpinner.setMinimumSize(new java.awt.Dimension(48, 28));
+        playbackSpeedSpinner.setPreferredSize(new java.awt.Dimension(48, 28));
+        playbackSpeedSpinner.addChangeListener(new javax.swing.event.ChangeListener()
+        {
+            public void stateChanged(javax.swing.event.ChangeEvent evt)
+            {
+                playbackSpeedSpinnerStateChanged(evt);
+            }
+        });
+        playbackToolBar.add(playbackSpeedSpinner);
+
+        playbackToolBarFiller5.setFocusable(false);
+        playbackToolBar.add(playbackToolBarFiller5);
+
+        framesPerSecondSpinner.setModel(new javax.swing.SpinnerNumberModel(30, 10, 120, 5));
+        framesPerSecondSpinner.setToolTipText("Nombre d'images par seconde de la stratégie");
+        framesPerSecondSpinner.setMaximumSize(new java.awt.Dimension(44, 28));
+        framesPerSecondSpinner.setMinimumSize(new java.awt.Dimension(44, 28));
+        framesPerSecondSpinner.setPreferredSize(new java.awt.Dimension(44, 28));
+        framesPerSecondSpinner.addChangeListener(new javax.swing.event.ChangeListener()
+        {
+            public void stateChanged(javax.swing.event.ChangeEvent evt)
+            {
+                framesPerSecondSpinnerStateChanged(evt);
+            }
+        });
+        playbackToolBar.add(framesPerSecondSpinner);
+
         playbackToolBarFiller2.setFocusable(false);
         playbackToolBar.add(playbackToolBarFiller2);
 
@@ -1634,6 +1767,223 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
             }
         });
         playbackMenu.add(skipForwardMenuItem);
+        playbackMenu.add(playbackMenuSeparator1);
+
+        playbackModeMenuButtonGroup.add(playOnceRadioButtonMenuItem);
+        playOnceRadioButtonMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_U);
+        playOnceRadioButtonMenuItem.setSelected(true);
+        playOnceRadioButtonMenuItem.setText("Lire une fois");
+        playOnceRadioButtonMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                playOnceRadioButtonMenuItemActionPerformed(evt);
+            }
+        });
+        playbackMenu.add(playOnceRadioButtonMenuItem);
+
+        playbackModeMenuButtonGroup.add(loopRadioButtonMenuItem);
+        loopRadioButtonMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_B);
+        loopRadioButtonMenuItem.setText("Lire en boucle");
+        loopRadioButtonMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                loopRadioButtonMenuItemActionPerformed(evt);
+            }
+        });
+        playbackMenu.add(loopRadioButtonMenuItem);
+
+        playbackModeMenuButtonGroup.add(pingPongRadioButtonMenuItem);
+        pingPongRadioButtonMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_L);
+        pingPongRadioButtonMenuItem.setText("Lire en aller-retour");
+        pingPongRadioButtonMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                pingPongRadioButtonMenuItemActionPerformed(evt);
+            }
+        });
+        playbackMenu.add(pingPongRadioButtonMenuItem);
+
+        reverseCheckBoxMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_N);
+        reverseCheckBoxMenuItem.setText("Lire à l'envers");
+        reverseCheckBoxMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                reverseCheckBoxMenuItemActionPerformed(evt);
+            }
+        });
+        playbackMenu.add(reverseCheckBoxMenuItem);
+
+        playbackMenu.add(interpolationMenuSeparator);
+
+        interpolationMenuButtonGroup.add(linearInterpolationRadioButtonMenuItem);
+        linearInterpolationRadioButtonMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_J);
+        linearInterpolationRadioButtonMenuItem.setSelected(true);
+        linearInterpolationRadioButtonMenuItem.setText("Trajectoire linéaire");
+        linearInterpolationRadioButtonMenuItem.setToolTipText("Déplace les joueurs en ligne droite d'une image clé à l'autre");
+        linearInterpolationRadioButtonMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                linearInterpolationRadioButtonMenuItemActionPerformed(evt);
+            }
+        });
+        playbackMenu.add(linearInterpolationRadioButtonMenuItem);
+
+        interpolationMenuButtonGroup.add(catmullRomInterpolationRadioButtonMenuItem);
+        catmullRomInterpolationRadioButtonMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_O);
+        catmullRomInterpolationRadioButtonMenuItem.setText("Trajectoire courbe");
+        catmullRomInterpolationRadioButtonMenuItem.setToolTipText("Déplace les joueurs sur une courbe lisse passant par chaque image clé");
+        catmullRomInterpolationRadioButtonMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                catmullRomInterpolationRadioButtonMenuItemActionPerformed(evt);
+            }
+        });
+        playbackMenu.add(catmullRomInterpolationRadioButtonMenuItem);
+
+        playbackMenu.add(playbackMenuSeparator2);
+
+        setRangeStartMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_D);
+        setRangeStartMenuItem.setText("Début de la plage à l'image courante");
+        setRangeStartMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                setRangeStartMenuItemActionPerformed(evt);
+            }
+        });
+        playbackMenu.add(setRangeStartMenuItem);
+
+        setRangeEndMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_F);
+        setRangeEndMenuItem.setText("Fin de la plage à l'image courante");
+        setRangeEndMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                setRangeEndMenuItemActionPerformed(evt);
+            }
+        });
+        playbackMenu.add(setRangeEndMenuItem);
+
+        clearRangeMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_C);
+        clearRangeMenuItem.setText("Effacer la plage de lecture");
+        clearRangeMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                clearRangeMenuItemActionPerformed(evt);
+            }
+        });
+        playbackMenu.add(clearRangeMenuItem);
+
+        insertTimeMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_Q);
+        insertTimeMenuItem.setText("Insérer quelques secondes");
+        insertTimeMenuItem.setToolTipText("Insère la durée du saut à l'image courante et décale la suite de l'animation");
+        insertTimeMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                insertTimeMenuItemActionPerformed(evt);
+            }
+        });
+        playbackMenu.add(insertTimeMenuItem);
+
+        deleteRangeMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_G);
+        deleteRangeMenuItem.setText("Supprimer la plage de lecture");
+        deleteRangeMenuItem.setToolTipText("Supprime les images de la plage de lecture et rapproche la suite de l'animation");
+        deleteRangeMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                deleteRangeMenuItemActionPerformed(evt);
+            }
+        });
+        playbackMenu.add(deleteRangeMenuItem);
+        playbackMenu.add(playbackMenuSeparator3);
+
+        compactPosesCheckBoxMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_M);
+        compactPosesCheckBoxMenuItem.setText("Enregistrement compact");
+        compactPosesCheckBoxMenuItem.setToolTipText("Enregistre les positions sur 16 bits pour réduire la taille des longues animations");
+        compactPosesCheckBoxMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                compactPosesCheckBoxMenuItemActionPerformed(evt);
+            }
+        });
+        playbackMenu.add(compactPosesCheckBoxMenuItem);
+
+        simplificationSubMenu.setMnemonic(java.awt.event.KeyEvent.VK_S);
+        simplificationSubMenu.setText("Simplification de l'enregistrement");
+        simplificationSubMenu.setToolTipText("Retire à la fin d'un enregistrement en temps réel les positions qui peuvent être interpolées");
+
+        simplificationMenuButtonGroup.add(noSimplificationRadioButtonMenuItem);
+        noSimplificationRadioButtonMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_A);
+        noSimplificationRadioButtonMenuItem.setSelected(true);
+        noSimplificationRadioButtonMenuItem.setText("Aucune");
+        noSimplificationRadioButtonMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                noSimplificationRadioButtonMenuItemActionPerformed(evt);
+            }
+        });
+        simplificationSubMenu.add(noSimplificationRadioButtonMenuItem);
+
+        simplificationMenuButtonGroup.add(fineSimplificationRadioButtonMenuItem);
+        fineSimplificationRadioButtonMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_F);
+        fineSimplificationRadioButtonMenuItem.setText("Fine (0,5 pixel, 1°)");
+        fineSimplificationRadioButtonMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                fineSimplificationRadioButtonMenuItemActionPerformed(evt);
+            }
+        });
+        simplificationSubMenu.add(fineSimplificationRadioButtonMenuItem);
+
+        simplificationMenuButtonGroup.add(mediumSimplificationRadioButtonMenuItem);
+        mediumSimplificationRadioButtonMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_M);
+        mediumSimplificationRadioButtonMenuItem.setText("Moyenne (1 pixel, 2°)");
+        mediumSimplificationRadioButtonMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                mediumSimplificationRadioButtonMenuItemActionPerformed(evt);
+            }
+        });
+        simplificationSubMenu.add(mediumSimplificationRadioButtonMenuItem);
+
+        simplificationMenuButtonGroup.add(strongSimplificationRadioButtonMenuItem);
+        strongSimplificationRadioButtonMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_O);
+        strongSimplificationRadioButtonMenuItem.setText("Forte (3 pixels, 5°)");
+        strongSimplificationRadioButtonMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                strongSimplificationRadioButtonMenuItemActionPerformed(evt);
+            }
+        });
+        simplificationSubMenu.add(strongSimplificationRadioButtonMenuItem);
+
+        playbackMenu.add(simplificationSubMenu);
+
+        bakeMenuItem.setMnemonic(java.awt.event.KeyEvent.VK_P);
+        bakeMenuItem.setText("Préparer l'animation");
+        bakeMenuItem.setToolTipText("Calcule d'avance toutes les images de l'animation");
+        bakeMenuItem.addActionListener(new java.awt.event.ActionListener()
+        {
+            public void actionPerformed(java.awt.event.ActionEvent evt)
+            {
+                bakeMenuItemActionPerformed(evt);
+            }
+        });
+        playbackMenu.add(bakeMenuItem);
 
         topMenuBar.add(playbackMenu);
 
@@ -1662,6 +2012,72 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         controller.saveState();
         undoButton.setEnabled(true);
         undoMenuItem.setEnabled(true);
+        drawingPanel.refresh();
+    }
+
+    /**
+     * Bakes the animation of the current strategy on a background thread and
+     * shows its progress in a {@link ProgressMonitor} that can cancel it.
+     */
+    private void bakeAnimation()
+    {
+        final ProgressMonitor progressMonitor =
+                new ProgressMonitor(this, "Préparation de l'animation", null, 0, 1);
+        final AtomicBoolean isCancelled = new AtomicBoolean(false);
+
+        // NOTE(Eric): The bake threads can not ask the ProgressMonitor
+        // directly, it must only be used on the event dispatch thread.
+        final Timer cancelTimer = new Timer(100, new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                isCancelled.set(progressMonitor.isCanceled());
+            }
+        });
+
+        bakeMenuItem.setEnabled(false);
+        cancelTimer.start();
+        new SwingWorker<Boolean, int[]>()
+        {
+            @Override
+            protected Boolean doInBackground()
+            {
+                return controller.bakeAnimation(new AnimationBakeObserver()
+                {
+                    @Override
+                    public void bakeProgressChanged(int bakedEntityCount, int entityCount)
+                    {
+                        publish(new int[]
+                        {
+                            bakedEntityCount, entityCount
+                        });
+                    }
+
+                    @Override
+                    public boolean isBakeCancelled()
+                    {
+                        return isCancelled.get();
+                    }
+                });
+            }
+
+            @Override
+            protected void process(List<int[]> chunks)
+            {
+                int[] progress = chunks.get(chunks.size() - 1);
+                progressMonitor.setMaximum(progress[1]);
+                progressMonitor.setProgress(progress[0]);
+            }
+
+            @Override
+            protected void done()
+            {
+                cancelTimer.stop();
+                progressMonitor.close();
+                bakeMenuItem.setEnabled(true);
+            }
+        }.execute();
     }
 
     private void undoMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_undoMenuItemActionPerformed
@@ -1707,6 +2123,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         {
             drawingPanel.updateMousePosition(
                     controller.getNormalizedPosition(mousePosition));
+            drawingPanel.refresh();
         }
 
         if (controller.showRotationImage(mousePosition))
@@ -1794,7 +2211,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
                     saveState();
                 }
             }
-            drawingPanel.repaint();
+            drawingPanel.refresh();
         }
         else if (actualMode == ApplicationMode.ADD_PLAYING_ELEMENT)
         {
@@ -1816,7 +2233,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
             editPlayerButton.setEnabled(controller.getSelectedPlayer() != null);
             addEntityButton.setEnabled(!(selectedEntitiesCount > 0));
             linkPlayingElementButton.setEnabled(controller.getSelectedPlayingElement() != null);
-            drawingPanel.repaint();
+            drawingPanel.refresh();
         }
         else if (actualMode == ApplicationMode.LINK_PLAYING_ELEMENT)
         {
@@ -1825,7 +2242,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
             controller.linkPlayingElementToPlayerLoc(mousePosition);
 
             drawingPanel.showLinkLine(false);
-            drawingPanel.repaint();
+            drawingPanel.refresh();
             saveState();
         }
 
@@ -1848,7 +2265,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
                               (mousePosition.getY() - previousMousePosition.y));
             controller.updateSelectedItemsPositions(delta);
             previousMousePosition = evt.getPoint();
-            drawingPanel.repaint();
+            drawingPanel.refresh();
         }
         else if (SwingUtilities.isLeftMouseButton(evt) &&
                  actualMode == ApplicationMode.ROTATION)
@@ -1856,6 +2273,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
             showRotationArrow(mousePosition);
             controller.rotateSelectedPlayer(previousMousePosition, mousePosition);
             previousMousePosition = mousePosition;
+            drawingPanel.refresh();
         }
     }//GEN-LAST:event_drawingPanelMouseDragged
 
@@ -1940,8 +2358,159 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
     private void skipForwardMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_skipForwardMenuItemActionPerformed
     {//GEN-HEADEREND:event_skipForwardMenuItemActionPerformed
         controller.skipForwardAnimation();
+
+        // NOTE(Eric): Skipping forward while recording frame by frame adds a
+        // keyframe, which changes the previous images drawn behind the scene.
+        drawingPanel.repaint();
     }//GEN-LAST:event_skipForwardMenuItemActionPerformed
 
+    private void playOnceRadioButtonMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_playOnceRadioButtonMenuItemActionPerformed
+    {//GEN-HEADEREND:event_playOnceRadioButtonMenuItemActionPerformed
+        controller.setAnimationPlaybackMode(PlaybackMode.ONCE);
+    }//GEN-LAST:event_playOnceRadioButtonMenuItemActionPerformed
+
+    private void loopRadioButtonMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_loopRadioButtonMenuItemActionPerformed
+    {//GEN-HEADEREND:event_loopRadioButtonMenuItemActionPerformed
+        controller.setAnimationPlaybackMode(PlaybackMode.LOOP);
+    }//GEN-LAST:event_loopRadioButtonMenuItemActionPerformed
+
+    private void pingPongRadioButtonMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_pingPongRadioButtonMenuItemActionPerformed
+    {//GEN-HEADEREND:event_pingPongRadioButtonMenuItemActionPerformed
+        controller.setAnimationPlaybackMode(PlaybackMode.PING_PONG);
+    }//GEN-LAST:event_pingPongRadioButtonMenuItemActionPerformed
+
+    private void reverseCheckBoxMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_reverseCheckBoxMenuItemActionPerformed
+    {//GEN-HEADEREND:event_reverseCheckBoxMenuItemActionPerformed
+        controller.setAnimationReversed(reverseCheckBoxMenuItem.isSelected());
+    }//GEN-LAST:event_reverseCheckBoxMenuItemActionPerformed
+
+    private void linearInterpolationRadioButtonMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_linearInterpolationRadioButtonMenuItemActionPerformed
+    {//GEN-HEADEREND:event_linearInterpolationRadioButtonMenuItemActionPerformed
+        setAnimationInterpolation(Interpolation.LINEAR);
+    }//GEN-LAST:event_linearInterpolationRadioButtonMenuItemActionPerformed
+
+    private void catmullRomInterpolationRadioButtonMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_catmullRomInterpolationRadioButtonMenuItemActionPerformed
+    {//GEN-HEADEREND:event_catmullRomInterpolationRadioButtonMenuItemActionPerformed
+        setAnimationInterpolation(Interpolation.CATMULL_ROM);
+    }//GEN-LAST:event_catmullRomInterpolationRadioButtonMenuItemActionPerformed
+
+    private void setAnimationInterpolation(Interpolation value)
+    {
+        if (controller.getCurrentSportStrategyCount() > 0 &&
+            controller.getAnimationInterpolation() != value)
+        {
+            controller.setAnimationInterpolation(value);
+            saveState();
+            drawingPanel.repaint();
+        }
+    }
+
+    private void setRangeStartMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_setRangeStartMenuItemActionPerformed
+    {//GEN-HEADEREND:event_setRangeStartMenuItemActionPerformed
+        controller.setAnimationPlaybackRangeStart();
+    }//GEN-LAST:event_setRangeStartMenuItemActionPerformed
+
+    private void setRangeEndMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_setRangeEndMenuItemActionPerformed
+    {//GEN-HEADEREND:event_setRangeEndMenuItemActionPerformed
+        controller.setAnimationPlaybackRangeEnd();
+    }//GEN-LAST:event_setRangeEndMenuItemActionPerformed
+
+    private void clearRangeMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_clearRangeMenuItemActionPerformed
+    {//GEN-HEADEREND:event_clearRangeMenuItemActionPerformed
+        controller.clearAnimationPlaybackRange();
+    }//GEN-LAST:event_clearRangeMenuItemActionPerformed
+
+    private void insertTimeMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_insertTimeMenuItemActionPerformed
+    {//GEN-HEADEREND:event_insertTimeMenuItemActionPerformed
+        if (controller.getCurrentSportStrategyCount() > 0)
+        {
+            controller.insertAnimationTime();
+            saveState();
+            drawingPanel.repaint();
+        }
+    }//GEN-LAST:event_insertTimeMenuItemActionPerformed
+
+    private void deleteRangeMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_deleteRangeMenuItemActionPerformed
+    {//GEN-HEADEREND:event_deleteRangeMenuItemActionPerformed
+        if (controller.getCurrentSportStrategyCount() > 0)
+        {
+            controller.deleteAnimationPlaybackRange();
+            saveState();
+            drawingPanel.repaint();
+        }
+    }//GEN-LAST:event_deleteRangeMenuItemActionPerformed
+
+    private void compactPosesCheckBoxMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_compactPosesCheckBoxMenuItemActionPerformed
+    {//GEN-HEADEREND:event_compactPosesCheckBoxMenuItemActionPerformed
+        if (controller.getCurrentSportStrategyCount() > 0)
+        {
+            controller.setAnimationPoseQuantized(compactPosesCheckBoxMenuItem.isSelected());
+            saveState();
+        }
+    }//GEN-LAST:event_compactPosesCheckBoxMenuItemActionPerformed
+
+    private void noSimplificationRadioButtonMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_noSimplificationRadioButtonMenuItemActionPerformed
+    {//GEN-HEADEREND:event_noSimplificationRadioButtonMenuItemActionPerformed
+        setAnimationSimplification(0f, MEDIUM_SIMPLIFICATION_ANGLE_IN_DEGREES);
+    }//GEN-LAST:event_noSimplificationRadioButtonMenuItemActionPerformed
+
+    private void fineSimplificationRadioButtonMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_fineSimplificationRadioButtonMenuItemActionPerformed
+    {//GEN-HEADEREND:event_fineSimplificationRadioButtonMenuItemActionPerformed
+        setAnimationSimplification(FINE_SIMPLIFICATION_DISTANCE, FINE_SIMPLIFICATION_ANGLE_IN_DEGREES);
+    }//GEN-LAST:event_fineSimplificationRadioButtonMenuItemActionPerformed
+
+    private void mediumSimplificationRadioButtonMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_mediumSimplificationRadioButtonMenuItemActionPerformed
+    {//GEN-HEADEREND:event_mediumSimplificationRadioButtonMenuItemActionPerformed
+        setAnimationSimplification(MEDIUM_SIMPLIFICATION_DISTANCE, MEDIUM_SIMPLIFICATION_ANGLE_IN_DEGREES);
+    }//GEN-LAST:event_mediumSimplificationRadioButtonMenuItemActionPerformed
+
+    private void strongSimplificationRadioButtonMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_strongSimplificationRadioButtonMenuItemActionPerformed
+    {//GEN-HEADEREND:event_strongSimplificationRadioButtonMenuItemActionPerformed
+        setAnimationSimplification(STRONG_SIMPLIFICATION_DISTANCE, STRONG_SIMPLIFICATION_ANGLE_IN_DEGREES);
+    }//GEN-LAST:event_strongSimplificationRadioButtonMenuItemActionPerformed
+
+    private void setAnimationSimplification(float distance, float angleInDegrees)
+    {
+        if (controller.getCurrentSportStrategyCount() > 0)
+        {
+            controller.setAnimationSimplificationTolerances(distance,
+                                                            (float) Math.toRadians(angleInDegrees));
+            saveState();
+        }
+    }
+
+    /**
+     * Selects the simplification menu item matching the current strategy.
+     */
+    private void refreshSimplificationMenuItems()
+    {
+        float distance = controller.getAnimationSimplificationTolerance();
+        if (distance <= 0f)
+        {
+            noSimplificationRadioButtonMenuItem.setSelected(true);
+        }
+        else if (distance <= FINE_SIMPLIFICATION_DISTANCE)
+        {
+            fineSimplificationRadioButtonMenuItem.setSelected(true);
+        }
+        else if (distance <= MEDIUM_SIMPLIFICATION_DISTANCE)
+        {
+            mediumSimplificationRadioButtonMenuItem.setSelected(true);
+        }
+        else
+        {
+            strongSimplificationRadioButtonMenuItem.setSelected(true);
+        }
+    }
+
+    private void bakeMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_bakeMenuItemActionPerformed
+    {//GEN-HEADEREND:event_bakeMenuItemActionPerformed
+        if (controller.getCurrentSportStrategyCount() > 0)
+        {
+            bakeAnimation();
+        }
+    }//GEN-LAST:event_bakeMenuItemActionPerformed
+
     private void backgroundColorMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_backgroundColorMenuItemActionPerformed
     {//GEN-HEADEREND:event_backgroundColorMenuItemActionPerformed
         backgroundColor = JColorChooser.showDialog(null,
@@ -2060,6 +2629,56 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         controller.setSkipAmountInSeconds((int) (skipAmountInSecondsSpinner.getValue()));
     }//GEN-LAST:event_skipAmountInSecondsSpinnerStateChanged
 
+    private void playbackSpeedSpinnerStateChanged(javax.swing.event.ChangeEvent evt)//GEN-FIRST:event_playbackSpeedSpinnerStateChanged
+    {//GEN-HEADEREND:event_playbackSpeedSpinnerStateChanged
+        try
+        {
+            playbackSpeedSpinner.commitEdit();
+        }
+        catch (ParseException ex)
+        {
+            Logger.getLogger(MainWindow.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        if (actionListenerEnabled)
+        {
+            controller.setAnimationPlaybackSpeed(((Number) playbackSpeedSpinner.getValue()).floatValue());
+        }
+    }//GEN-LAST:event_playbackSpeedSpinnerStateChanged
+
+    private void framesPerSecondSpinnerStateChanged(javax.swing.event.ChangeEvent evt)//GEN-FIRST:event_framesPerSecondSpinnerStateChanged
+    {//GEN-HEADEREND:event_framesPerSecondSpinnerStateChanged
+        try
+        {
+            framesPerSecondSpinner.commitEdit();
+        }
+        catch (ParseException ex)
+        {
+            Logger.getLogger(MainWindow.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        if (actionListenerEnabled &&
+            controller.getCurrentSportStrategyCount() > 0)
+        {
+            frameRateTimer.restart();
+        }
+    }//GEN-LAST:event_framesPerSecondSpinnerStateChanged
+
+    /**
+     * Applies the frame rate of the spinner to the current strategy, if it was
+     * changed and has not been applied yet.
+     */
+    private void commitFramesPerSecond()
+    {
+        frameRateTimer.stop();
+        if (controller.getCurrentSportStrategyCount() > 0 &&
+            (int) framesPerSecondSpinner.getValue() != controller.getAnimationFramesPerSecond())
+        {
+            controller.setAnimationFramesPerSecond((int) framesPerSecondSpinner.getValue());
+            saveState();
+        }
+    }
+
     private void recordOffButtonActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_recordOffButtonActionPerformed
     {//GEN-HEADEREND:event_recordOffButtonActionPerformed
         recordOnButton.setVisible(true);
@@ -2074,6 +2693,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         fastForwardMenuItem.setEnabled(false);
         exportMenuItem.setEnabled(false);
         controller.setRecording(true);
+        drawingPanel.repaint();
     }//GEN-LAST:event_recordOffButtonActionPerformed
 
     private void recordOnButtonActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_recordOnButtonActionPerformed
@@ -2093,6 +2713,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
 
         // NOTE(Eric): Brings the animation back to the start
         controller.stopAnimation();
+        drawingPanel.repaint();
     }//GEN-LAST:event_recordOnButtonActionPerformed
 
     private void showStatusBarCheckBoxMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_showStatusBarCheckBoxMenuItemActionPerformed
@@ -2243,6 +2864,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
     private void showPlayerRolesCheckBoxMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_showPlayerRolesCheckBoxMenuItemActionPerformed
     {//GEN-HEADEREND:event_showPlayerRolesCheckBoxMenuItemActionPerformed
         controller.setPlayerRolesVisible(showPlayerRolesCheckBoxMenuItem.isSelected());
+        drawingPanel.repaint();
     }//GEN-LAST:event_showPlayerRolesCheckBoxMenuItemActionPerformed
 
     private void editPlayerButtonActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_editPlayerButtonActionPerformed
@@ -2333,6 +2955,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
     private void showPlayerNamesCheckBoxMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_showPlayerNamesCheckBoxMenuItemActionPerformed
     {//GEN-HEADEREND:event_showPlayerNamesCheckBoxMenuItemActionPerformed
         controller.setPlayerNamesVisible(showPlayerNamesCheckBoxMenuItem.isSelected());
+        drawingPanel.repaint();
     }//GEN-LAST:event_showPlayerNamesCheckBoxMenuItemActionPerformed
 
     private void saveAsMenuItemActionPerformed(java.awt.event.ActionEvent evt)//GEN-FIRST:event_saveAsMenuItemActionPerformed
@@ -2387,7 +3010,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         actualMode = ApplicationMode.LINK_PLAYING_ELEMENT;
 
         drawingPanel.showLinkLine(true);
-        drawingPanel.repaint();
+        drawingPanel.refresh();
     }//GEN-LAST:event_linkPlayingElementButtonActionPerformed
 
     private void currentFrameLabelMouseClicked(java.awt.event.MouseEvent evt)//GEN-FIRST:event_currentFrameLabelMouseClicked
@@ -2397,9 +3020,10 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
 
     private void timeSliderStateChanged(javax.swing.event.ChangeEvent evt)//GEN-FIRST:event_timeSliderStateChanged
     {//GEN-HEADEREND:event_timeSliderStateChanged
-        if (timeSlider.getValueIsAdjusting())
+        if (timeSlider.getValueIsAdjusting() &&
+            !scrubTimer.isRunning())
         {
-            controller.setCurrentFrame(timeSlider.getValue());
+            scrubTimer.start();
         }
     }//GEN-LAST:event_timeSliderStateChanged
 
@@ -2426,6 +3050,8 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
 
     private void timeSliderMouseReleased(java.awt.event.MouseEvent evt)//GEN-FIRST:event_timeSliderMouseReleased
     {//GEN-HEADEREND:event_timeSliderMouseReleased
+        flushScrub();
+
         if (!controller.isAnimationRunning() &&
             animationWasPreviouslyRunning)
         {
@@ -2433,6 +3059,19 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         }
     }//GEN-LAST:event_timeSliderMouseReleased
 
+    /**
+     * Applies right away the frame the time slider was dragged to, if it has
+     * not been applied yet.
+     */
+    private void flushScrub()
+    {
+        if (scrubTimer.isRunning())
+        {
+            scrubTimer.stop();
+            controller.setCurrentFrame(timeSlider.getValue());
+        }
+    }
+
     private void showExportAsImageDialog()
     {
         JFileChooser fileChooser = new JFileChooser();
@@ -2660,6 +3299,8 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         {
             controller.addAnimationPropertiesChangedObserver(this);
             controller.setSkipAmountInSeconds((int) (skipAmountInSecondsSpinner.getValue()));
+            controller.setAnimationFramesPerSecond((int) framesPerSecondSpinner.getValue());
+            controller.setAnimationPlaybackSpeed(((Number) playbackSpeedSpinner.getValue()).floatValue());
             controller.setFrameByFrameAnimation(
                     animationModeComboBox.getSelectedItem().toString().equals(frameByFrameString));
         }
@@ -2676,6 +3317,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         rolePropertyWindow.setIconImages(applicationIcons);
         rolePropertyWindow.setLocationRelativeTo(this);
         rolePropertyWindow.setVisible(true);
+        drawingPanel.repaint();
 
         editRoleMenuItem.setEnabled(!controller.getRoleNames().isEmpty());
 
@@ -2689,6 +3331,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         entityTypePropertyWindow.setIconImages(applicationIcons);
         entityTypePropertyWindow.setLocationRelativeTo(this);
         entityTypePropertyWindow.setVisible(true);
+        drawingPanel.repaint();
 
         editEntityTypeMenuItem.setEnabled(!controller.getEntityTypeNames().isEmpty());
 
@@ -2702,6 +3345,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         playerPropertyWindow.setIconImages(applicationIcons);
         playerPropertyWindow.setLocationRelativeTo(this);
         playerPropertyWindow.setVisible(true);
+        drawingPanel.repaint();
 
         saveState();
     }
@@ -2759,15 +3403,24 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
         // Others
         strategyComboBox.setEnabled(enable);
         animationModeComboBox.setEnabled(enable);
+        playbackSpeedSpinner.setEnabled(enable);
+        framesPerSecondSpinner.setEnabled(enable);
     }
 
     @Override
     public void animationPropertiesChanged()
     {
+        drawingPanel.refresh();
         timeSlider.setMaximum(controller.getMaxFrameIndex());
         timeSlider.setValue(controller.getCurrentFrameIndex());
         // TODO(Eric): Find a better name for this
         currentFrameLabel.setText(controller.getAnimationStat());
+        if (controller.isAnimationRunning())
+        {
+            currentFrameLabel.setToolTipText(String.format("Retard : %.1f ms, images sautées : %d",
+                                                           controller.getAnimationLagInMillis(),
+                                                           controller.getAnimationDroppedFrameCount()));
+        }
     }
 
     private void rebuildComboboxesItems()
@@ -2823,10 +3476,15 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
     private javax.swing.JButton addStrategyButton;
     private javax.swing.JComboBox<String> animationModeComboBox;
     private javax.swing.JMenuItem backgroundColorMenuItem;
+    private javax.swing.JMenuItem bakeMenuItem;
     private javax.swing.JPanel bottomToolBarPanel;
+    private javax.swing.JRadioButtonMenuItem catmullRomInterpolationRadioButtonMenuItem;
+    private javax.swing.JMenuItem clearRangeMenuItem;
+    private javax.swing.JCheckBoxMenuItem compactPosesCheckBoxMenuItem;
     private javax.swing.JLabel currentFrameLabel;
     private javax.swing.JButton deleteButton;
     private javax.swing.JMenuItem deleteMenuItem;
+    private javax.swing.JMenuItem deleteRangeMenuItem;
     private javax.swing.JButton deleteStrategyButton;
     private javax.swing.ButtonGroup displayModeMenuButtonGroup;
     private javax.swing.JMenu displayModeSubMenu;
@@ -2853,45 +3511,68 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
     private javax.swing.JMenuItem fastForwardMenuItem;
     private javax.swing.JMenu fileMenu;
     private javax.swing.JPopupMenu.Separator fileMenuSeparator1;
+    private javax.swing.JRadioButtonMenuItem fineSimplificationRadioButtonMenuItem;
+    private javax.swing.JSpinner framesPerSecondSpinner;
+    private javax.swing.JMenuItem insertTimeMenuItem;
+    private javax.swing.ButtonGroup interpolationMenuButtonGroup;
+    private javax.swing.JPopupMenu.Separator interpolationMenuSeparator;
     private javax.swing.JRadioButtonMenuItem jRadioButtonMenuItem1;
+    private javax.swing.JRadioButtonMenuItem linearInterpolationRadioButtonMenuItem;
     private javax.swing.JButton linkPlayingElementButton;
+    private javax.swing.JRadioButtonMenuItem loopRadioButtonMenuItem;
     private javax.swing.JPanel mainPanel;
     private javax.swing.JScrollPane mainScrollPane;
     private javax.swing.JPanel mainScrollPanePanel;
+    private javax.swing.JRadioButtonMenuItem mediumSimplificationRadioButtonMenuItem;
     private javax.swing.Box.Filler middleToolBarFiller;
     private javax.swing.JPanel middleToolBarPanel;
     private javax.swing.JLabel mousePositionIconLabel;
     private javax.swing.JLabel mousePositionLabel;
     private javax.swing.JMenuItem newProjectMenuItem;
     private javax.swing.JMenuItem newSportMenuItem;
+    private javax.swing.JRadioButtonMenuItem noSimplificationRadioButtonMenuItem;
     private javax.swing.JMenuItem openMenuItem;
     private javax.swing.JButton originalZoomButton;
     private javax.swing.JMenuItem originalZoomMenuItem;
     private javax.swing.JButton pauseButton;
+    private javax.swing.JRadioButtonMenuItem pingPongRadioButtonMenuItem;
     private javax.swing.JButton playButton;
+    private javax.swing.JRadioButtonMenuItem playOnceRadioButtonMenuItem;
     private javax.swing.JMenuItem playPauseMenuItem;
     private javax.swing.JMenu playbackMenu;
+    private javax.swing.JPopupMenu.Separator playbackMenuSeparator1;
+    private javax.swing.JPopupMenu.Separator playbackMenuSeparator2;
+    private javax.swing.JPopupMenu.Separator playbackMenuSeparator3;
+    private javax.swing.ButtonGroup playbackModeMenuButtonGroup;
+    private javax.swing.JSpinner playbackSpeedSpinner;
     private javax.swing.JToolBar playbackToolBar;
     private javax.swing.JCheckBoxMenuItem playbackToolBarCheckBoxMenuItem;
     private javax.swing.Box.Filler playbackToolBarFiller1;
     private javax.swing.Box.Filler playbackToolBarFiller2;
     private javax.swing.Box.Filler playbackToolBarFiller3;
+    private javax.swing.Box.Filler playbackToolBarFiller4;
+    private javax.swing.Box.Filler playbackToolBarFiller5;
     private javax.swing.JSeparator playbackToolBarSeparator;
     private javax.swing.JMenuItem quitMenuItem;
     private javax.swing.JButton recordOffButton;
     private javax.swing.JButton recordOnButton;
     private javax.swing.JButton redoButton;
     private javax.swing.JMenuItem redoMenuItem;
+    private javax.swing.JCheckBoxMenuItem reverseCheckBoxMenuItem;
     private javax.swing.JButton rewindButton;
     private javax.swing.JMenuItem rewindMenuItem;
     private drillpad.gui.extensions.SortedComboBox roleComboBox;
     private javax.swing.JMenuItem saveAsMenuItem;
     private javax.swing.JMenuItem saveMenuItem;
+    private javax.swing.JMenuItem setRangeEndMenuItem;
+    private javax.swing.JMenuItem setRangeStartMenuItem;
     private javax.swing.JCheckBoxMenuItem showDrawingPanelBorderCheckBoxMenuItem;
     private javax.swing.JCheckBoxMenuItem showPlayerNamesCheckBoxMenuItem;
     private javax.swing.JCheckBoxMenuItem showPlayerRolesCheckBoxMenuItem;
     private javax.swing.JCheckBoxMenuItem showStatusBarCheckBoxMenuItem;
     private javax.swing.JRadioButtonMenuItem simpleDisplayModeRadioButtonMenuItem;
+    private javax.swing.ButtonGroup simplificationMenuButtonGroup;
+    private javax.swing.JMenu simplificationSubMenu;
     private javax.swing.JSpinner skipAmountInSecondsSpinner;
     private javax.swing.JButton skipBackButton;
     private javax.swing.JMenuItem skipBackMenuItem;
@@ -2903,6 +3584,7 @@ public class MainWindow extends javax.swing.JFrame implements AnimationPropertie
     private drillpad.gui.extensions.StrategyComboBox strategyComboBox;
     private javax.swing.JToolBar strategyToolBar;
     private javax.swing.JCheckBoxMenuItem strategyToolBarCheckBoxMenuItem;
+    private javax.swing.JRadioButtonMenuItem strongSimplificationRadioButtonMenuItem;
     private javax.swing.JSlider timeSlider;
     private javax.swing.JPanel toolBarPanel;
     private javax.swing.JMenu toolBarsSubMenu;
@@ -0,0 +1,133 @@
+package drillpad.gui.drawing;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Keeps a copy of the playing field image already scaled to the zoom level
+ * and in the pixel format of the screen, so painting the background is a
+ * plain copy instead of a rescale of the full image.
+ * <p>
+ * The copy is rebuilt only when the image, the zoomed size or the graphics
+ * configuration of the screen changes. The image is expected to be the level
+ * of the mip pyramid of the playing field picked for the zoom.
+ * <p>
+ * When the zoomed image is too large to be kept whole, only the region
+ * around the visible part is kept, and it is rebuilt when scrolling brings
+ * the view outside of it.
+ *
+ * @author Eric Perron
+ */
+final class BackgroundCache
+{
+    // NOTE(Eric): Zooming in on a large image would need hundreds of
+    // megabytes. Past 4096 x 4096 pixels, only a region around the visible
+    // part is kept.
+    private static final long MAX_CACHED_PIXELS = 4096L * 4096L;
+    // NOTE(Eric): The region reaches this far past each side of the visible
+    // part, so scrolling a little does not rebuild it. A 4K screen and its
+    // margins still fit in the budget.
+    private static final int REGION_MARGIN = 512;
+
+    private BufferedImage sourceImage;
+    private int width;
+    private int height;
+    private GraphicsConfiguration graphicsConfiguration;
+    private BufferedImage scaledImage;
+    // NOTE(Eric): The part of the zoomed image held by scaledImage.
+    private Rectangle region;
+
+    /**
+     * Draws the specified image at the origin, scaled to the specified size.
+     *
+     * @param g2d    The {@link Graphics2D} to draw on, not scaled by the zoom
+     *               factor.
+     * @param image  The playing field image.
+     * @param width  The width of the zoomed playing field, in pixels.
+     * @param height The height of the zoomed playing field, in pixels.
+     */
+    void draw(Graphics2D g2d, BufferedImage image, int width, int height)
+    {
+        // NOTE(Eric): The preview images of the strategies are drawn in
+        // a BufferedImage, they would throw away the copy made for the screen.
+        GraphicsConfiguration configuration = g2d.getDeviceConfiguration();
+        if (configuration.getDevice().getType() != GraphicsDevice.TYPE_RASTER_SCREEN)
+        {
+            g2d.drawImage(image, 0, 0, width, height, null);
+            return;
+        }
+
+        Rectangle bounds = new Rectangle(0, 0, width, height);
+        Rectangle visible = bounds;
+        Rectangle wantedRegion = bounds;
+        if ((long) width * height > MAX_CACHED_PIXELS)
+        {
+            Rectangle clip = g2d.getClipBounds();
+            if (clip == null)
+            {
+                g2d.drawImage(image, 0, 0, width, height, null);
+                return;
+            }
+
+            visible = clip.intersection(bounds);
+            if (visible.isEmpty())
+            {
+                return;
+            }
+
+            wantedRegion = new Rectangle(visible);
+            wantedRegion.grow(REGION_MARGIN, REGION_MARGIN);
+            wantedRegion = wantedRegion.intersection(bounds);
+            if ((long) wantedRegion.width * wantedRegion.height > MAX_CACHED_PIXELS)
+            {
+                g2d.drawImage(image, 0, 0, width, height, null);
+                return;
+            }
+        }
+
+        if (scaledImage == null ||
+            image != sourceImage ||
+            width != this.width ||
+            height != this.height ||
+            configuration != graphicsConfiguration ||
+            !region.contains(visible))
+        {
+            rebuild(image, width, height, wantedRegion, configuration);
+        }
+
+        g2d.drawImage(scaledImage, region.x, region.y, null);
+    }
+
+    private void rebuild(BufferedImage image,
+                         int width,
+                         int height,
+                         Rectangle region,
+                         GraphicsConfiguration configuration)
+    {
+        // NOTE(Eric): Only the pixels of the region are scaled, the rest of
+        // the image falls outside of the copy.
+        scaledImage = configuration.createCompatibleImage(region.width,
+                                                          region.height,
+                                                          image.getTransparency() == Transparency.OPAQUE ?
+                                                          Transparency.OPAQUE :
+                                                          Transparency.TRANSLUCENT);
+        Graphics2D g2d = scaledImage.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                             RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.translate(-region.x, -region.y);
+        g2d.drawImage(image, 0, 0, width, height, null);
+        g2d.dispose();
+
+        sourceImage = image;
+        this.width = width;
+        this.height = height;
+        this.region = region;
+        graphicsConfiguration = configuration;
+    }
+
+}
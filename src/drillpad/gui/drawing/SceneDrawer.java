@@ -2,19 +2,19 @@ package drillpad.gui.drawing;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.Stroke;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Point2D;
+import java.util.IdentityHashMap;
 import java.util.List;
-
-import javax.swing.Timer;
+import java.util.Map;
 
 import drillpad.domain.SceneController;
 import drillpad.domain.entity.Entity;
@@ -38,6 +38,12 @@ public class SceneDrawer implements InstanceChangedObserver
     private boolean isLinkLineEnabled = false;
     private boolean isArrowEnabled = false;
     private Point2D.Float currentMousePosition = new Point2D.Float();
+    private final BackgroundCache backgroundCache = new BackgroundCache();
+
+    // NOTE(Eric): What the scene looked like at the last refresh, to find
+    // the regions that changed since then.
+    private final Map<Entity, RefreshedEntity> refreshedEntities = new IdentityHashMap<>();
+    private Rectangle refreshedLinkLineBounds;
 
     public SceneDrawer()
     {
@@ -46,16 +52,6 @@ public class SceneDrawer implements InstanceChangedObserver
                                        BasicStroke.CAP_BUTT,
                                        BasicStroke.JOIN_MITER,
                                        1.0f, dash, dashPhase);
-
-        // Animates the dashed selection (marching ants selection effect)
-        new Timer(50, new ActionListener()
-          {
-              @Override
-              public void actionPerformed(ActionEvent e)
-              {
-                  dashPhase += (2 * dashLength) - 1;
-              }
-          }).start();
     }
 
     public void draw(Graphics g)
@@ -63,12 +59,17 @@ public class SceneDrawer implements InstanceChangedObserver
         Graphics2D g2d = (Graphics2D) g;
 
         AffineTransform previousTransform = g2d.getTransform();
-        g2d.scale(controller.getZoomFactor(), controller.getZoomFactor());
 
+        // NOTE(Eric): The background is already scaled to the zoom level.
         if (controller.getSportsCount() > 0)
         {
             drawBackground(g2d);
+        }
 
+        g2d.scale(controller.getZoomFactor(), controller.getZoomFactor());
+
+        if (controller.getSportsCount() > 0)
+        {
             if (isArrowEnabled)
             {
                 controller.drawPositionsAndArrows(g2d);
@@ -116,7 +117,30 @@ public class SceneDrawer implements InstanceChangedObserver
 
     private void drawBackground(Graphics2D g2d)
     {
-        g2d.drawImage(controller.getCurrentStrategyPlayingFieldImage(), 0, 0, null);
+        float zoomFactor = controller.getZoomFactor();
+
+        // NOTE(Eric): The strategy preview images are drawn scaled down, they
+        // use the same smaller images as the zoom level they end up at.
+        float scale = zoomFactor * (float) g2d.getTransform().getScaleX();
+        if (controller.isCurrentStrategyPlayingFieldTiled(scale))
+        {
+            AffineTransform previousTransform = g2d.getTransform();
+            g2d.scale(zoomFactor, zoomFactor);
+            controller.drawCurrentStrategyPlayingFieldTiles(g2d);
+            g2d.setTransform(previousTransform);
+            return;
+        }
+
+        Dimension dimension = controller.getImageDimension();
+        int width = Math.max((int) Math.ceil(dimension.width * zoomFactor), 1);
+        int height = Math.max((int) Math.ceil(dimension.height * zoomFactor), 1);
+
+        // NOTE(Eric): Zoomed out, the image is reduced from the closest level
+        // of its mip pyramid instead of the full image.
+        backgroundCache.draw(g2d,
+                             controller.getCurrentStrategyPlayingFieldImage(scale),
+                             width,
+                             height);
     }
 
     private void drawEntities(Graphics2D g2d)
@@ -178,6 +202,132 @@ public class SceneDrawer implements InstanceChangedObserver
         }
     }
 
+    /**
+     * Returns the region of the scene that changed since the last call: the
+     * bounds of the entities before and after they moved, turned, appeared,
+     * disappeared or were selected, and of the link line.
+     *
+     * @param fontMetrics The metrics of the font the scene is drawn with.
+     * @return The region, in playing field coordinates, or {@code null} if
+     *         nothing changed.
+     */
+    public Rectangle collectDamage(FontMetrics fontMetrics)
+    {
+        Rectangle damage = null;
+        Map<Entity, RefreshedEntity> previousEntities = new IdentityHashMap<>(refreshedEntities);
+        refreshedEntities.clear();
+
+        if (controller.getSportsCount() > 0)
+        {
+            for (Entity entity : controller.getEntities())
+            {
+                RefreshedEntity previous = previousEntities.remove(entity);
+                RefreshedEntity current = new RefreshedEntity(entity, fontMetrics);
+                refreshedEntities.put(entity, current);
+
+                if (previous == null)
+                {
+                    damage = union(damage, current.bounds);
+                }
+                else if (!previous.equals(current))
+                {
+                    damage = union(damage, previous.bounds);
+                    damage = union(damage, current.bounds);
+                }
+            }
+        }
+
+        for (RefreshedEntity removed : previousEntities.values())
+        {
+            damage = union(damage, removed.bounds);
+        }
+
+        Rectangle linkLineBounds = getLinkLineBounds();
+        if (linkLineBounds == null ?
+            refreshedLinkLineBounds != null :
+            !linkLineBounds.equals(refreshedLinkLineBounds))
+        {
+            damage = union(damage, refreshedLinkLineBounds);
+            damage = union(damage, linkLineBounds);
+        }
+        refreshedLinkLineBounds = linkLineBounds;
+
+        return damage;
+    }
+
+    /**
+     * Moves the dashes of the selection outlines and of the link line one
+     * step (marching ants selection effect).
+     *
+     * @return The region to repaint, in playing field coordinates, or
+     *         {@code null} if there is no dashed line to animate.
+     */
+    public Rectangle advanceDashPhase()
+    {
+        Rectangle damage = getLinkLineBounds();
+        if (controller.getSportsCount() > 0)
+        {
+            for (Entity entity : controller.getEntities())
+            {
+                if (entity.isSelected())
+                {
+                    damage = union(damage, getSelectionBounds(entity));
+                }
+            }
+        }
+
+        if (damage != null)
+        {
+            dashPhase += (2 * dashLength) - 1;
+        }
+
+        return damage;
+    }
+
+    private Rectangle getLinkLineBounds()
+    {
+        if (!isLinkLineEnabled ||
+            controller.getSportsCount() == 0 ||
+            controller.getSelectedPlayingElement() == null)
+        {
+            return null;
+        }
+
+        Point2D.Float start = controller.getSelectedPlayingElement().getPosition();
+        Rectangle bounds = new Rectangle((int) start.x, (int) start.y, 0, 0);
+        bounds.add((int) currentMousePosition.x, (int) currentMousePosition.y);
+        bounds.grow(2, 2);
+
+        return bounds;
+    }
+
+    private static Rectangle getSelectionBounds(Entity entity)
+    {
+        // NOTE(Eric): The outline may be rotated, the half diagonal covers any
+        // angle.
+        int extent = (int) Math.ceil(Math.hypot(entity.getWidth() + 2, entity.getHeight() + 2) / 2) + 2;
+
+        return new Rectangle((int) entity.getPosition().x - extent,
+                             (int) entity.getPosition().y - extent,
+                             extent * 2,
+                             extent * 2);
+    }
+
+    private static Rectangle union(Rectangle damage, Rectangle bounds)
+    {
+        if (bounds == null)
+        {
+            return damage;
+        }
+        if (damage == null)
+        {
+            return new Rectangle(bounds);
+        }
+
+        damage.add(bounds);
+        return damage;
+    }
+
     public void updateMousePosition(Point2D.Float mousePosition)
     {
         currentMousePosition = mousePosition;
@@ -189,4 +339,49 @@ public class SceneDrawer implements InstanceChangedObserver
         controller = SceneController.getInstance();
     }
 
+    /**
+     * The pose, selection and drawing bounds of an {@link Entity} at the last
+     * refresh.
+     */
+    private static final class RefreshedEntity
+    {
+        private final float x;
+        private final float y;
+        private final float angleInRadians;
+        private final boolean isSelected;
+        private final Rectangle bounds;
+
+        RefreshedEntity(Entity entity, FontMetrics fontMetrics)
+        {
+            x = entity.getPosition().x;
+            y = entity.getPosition().y;
+            angleInRadians = entity.getAngleInRadians();
+            isSelected = entity.isSelected();
+            bounds = entity.getDrawingBounds(fontMetrics);
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (!(object instanceof RefreshedEntity))
+            {
+                return false;
+            }
+
+            RefreshedEntity other = (RefreshedEntity) object;
+            return (x == other.x &&
+                    y == other.y &&
+                    angleInRadians == other.angleInRadians &&
+                    isSelected == other.isSelected &&
+                    bounds.equals(other.bounds));
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return bounds.hashCode();
+        }
+
+    }
+
 }
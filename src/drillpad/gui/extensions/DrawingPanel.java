@@ -2,10 +2,14 @@ package drillpad.gui.extensions;
 
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.geom.Point2D;
 import java.io.Serializable;
 
 import javax.swing.JPanel;
+import javax.swing.Timer;
 
 import drillpad.domain.SceneController;
 import drillpad.domain.event.InstanceChangedObserver;
@@ -21,14 +25,62 @@ public class DrawingPanel extends JPanel implements Serializable,
     private SceneController controller = SceneController.getInstance();
     private SceneDrawer mainDrawer;
 
+    // NOTE(Eric): Only runs while something was painted recently, it stops by
+    // itself when there is no selection or link line to animate.
+    private static final int MARCHING_ANTS_INTERVAL_IN_MILLIS = 50;
+    private final Timer marchingAntsTimer;
+
     // This constructor is only used by the NetNeans GUI builder
     public DrawingPanel()
     {
         mainDrawer = new SceneDrawer();
         controller.addInstanceChangedObserver(this);
+        marchingAntsTimer = new Timer(MARCHING_ANTS_INTERVAL_IN_MILLIS, new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                Rectangle damage = mainDrawer.advanceDashPhase();
+                if (damage == null)
+                {
+                    marchingAntsTimer.stop();
+                }
+                else
+                {
+                    repaintScene(damage);
+                }
+            }
+        });
         setVisible(true);
     }
 
+    /**
+     * Repaints only the regions of the scene that changed since the last
+     * refresh. Nothing is painted if nothing changed.
+     * <p>
+     * Changes that affect the whole scene, like the zoom or the playing field
+     * image, still need a {@link #repaint()}.
+     */
+    public void refresh()
+    {
+        Rectangle damage = mainDrawer.collectDamage(getFontMetrics(getFont()));
+        if (damage != null)
+        {
+            repaintScene(damage);
+        }
+    }
+
+    private void repaintScene(Rectangle sceneBounds)
+    {
+        float zoomFactor = controller.getZoomFactor();
+        int left = (int) Math.floor(sceneBounds.x * zoomFactor);
+        int top = (int) Math.floor(sceneBounds.y * zoomFactor);
+        int right = (int) Math.ceil((sceneBounds.x + sceneBounds.width) * zoomFactor);
+        int bottom = (int) Math.ceil((sceneBounds.y + sceneBounds.height) * zoomFactor);
+
+        repaint(left, top, right - left + 1, bottom - top + 1);
+    }
+
     public void updateMousePosition(Point2D.Float mousePosition)
     {
         mainDrawer.updateMousePosition(mousePosition);
@@ -51,6 +103,7 @@ public class DrawingPanel extends JPanel implements Serializable,
         {
             super.paintComponent(g);
             mainDrawer.draw(g);
+            marchingAntsTimer.start();
         }
     }
 